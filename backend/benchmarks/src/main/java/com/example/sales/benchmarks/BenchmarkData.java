@@ -0,0 +1,58 @@
+package com.example.sales.benchmarks;
+
+import com.example.sales.SalesManagementApplication;
+import com.example.sales.service.ProductNameIndex;
+import com.example.sales.service.SalesAggregateStore;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Boots the backend against a private in-memory H2 database and seeds it with generated data instead of
+// data.sql. Products are named "Product 1".."Product N"; sale x belongs to product (x % products) + 1 and is
+// dated (x / products) days before today, so every (product, day) pair appears once, as createSale leaves it.
+public final class BenchmarkData {
+
+    private static final int INSERT_CHUNK = 500_000;
+
+    private BenchmarkData() {}
+
+    public static ConfigurableApplicationContext start(int sales, int products, String... properties) {
+        List<String> all = new ArrayList<>(List.of(
+                "server.port=0",
+                "spring.datasource.url=jdbc:h2:mem:bench-" + sales + "-" + products + "-" + System.nanoTime() + ";DB_CLOSE_DELAY=-1",
+                "spring.sql.init.mode=never",
+                "spring.h2.console.enabled=false",
+                "logging.level.root=WARN",
+                "logging.level.com.example.sales=WARN"));
+        all.addAll(List.of(properties));
+        return start(new SpringApplicationBuilder(SalesManagementApplication.class).properties(all.toArray(String[]::new)),
+                sales, products);
+    }
+
+    public static ConfigurableApplicationContext start(SpringApplicationBuilder builder, int sales, int products) {
+        ConfigurableApplicationContext context = builder.run();
+        seed(context.getBean(JdbcTemplate.class), sales, products);
+
+        // In-memory views were built from the empty schema at startup
+        context.getBean(SalesAggregateStore.class).rebuild();
+        context.getBean(ProductNameIndex.class).afterSingletonsInstantiated();
+        return context;
+    }
+
+    private static void seed(JdbcTemplate jdbc, int sales, int products) {
+        // Stock is effectively unlimited so contention benchmarks never run out
+        jdbc.update("INSERT INTO products (name, price, quantity, active) "
+                + "SELECT 'Product ' || X, 1 + MOD(X * 37, 500), 1000000000, TRUE FROM SYSTEM_RANGE(1, ?)", products);
+
+        for (long from = 0; from < sales; from += INSERT_CHUNK) {
+            long to = Math.min(from + INSERT_CHUNK, sales) - 1;
+            jdbc.update("INSERT INTO sales (product_id, quantity, total_amount, date) "
+                    + "SELECT p.id, 1 + MOD(r.X, 5), (1 + MOD(r.X, 5)) * p.price, DATEADD('DAY', -(r.X / ?), CURRENT_DATE) "
+                    + "FROM SYSTEM_RANGE(?, ?) r JOIN products p ON p.id = MOD(r.X, ?) + 1",
+                    products, from, to, products);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.sales.benchmarks;
+
+import com.example.sales.security.JwtFilter;
+import com.example.sales.security.JwtTokenCache;
+import com.example.sales.security.JwtUtil;
+import jakarta.servlet.ServletException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+// Authenticated request overhead: the filter alone, without the rest of the security chain or a database.
+// The same token is sent every time, as a dashboard does; "cold" measures a token that is never cached.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Threads(4)
+@Fork(1)
+public class JwtFilterBenchmark {
+
+    private static final String SECRET = "MySuperSecretKeyThatIsLongEnough12345!";
+
+    private JwtFilter filter;
+    private JwtFilter coldFilter;
+    private String authorization;
+
+    @Setup
+    public void setUp() {
+        JwtUtil jwtUtil = new JwtUtil(SECRET);
+        filter = filter(jwtUtil, new JwtTokenCache(10_000));
+        coldFilter = filter(jwtUtil, new JwtTokenCache(0));
+        authorization = "Bearer " + jwtUtil.generateToken("benchmark");
+    }
+
+    @Benchmark
+    public Object authenticate() throws ServletException, IOException {
+        return doFilter(filter);
+    }
+
+    @Benchmark
+    public Object authenticateCold() throws ServletException, IOException {
+        return doFilter(coldFilter);
+    }
+
+    private Object doFilter(JwtFilter filter) throws ServletException, IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/sales");
+        request.addHeader("Authorization", authorization);
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+        Object principal = SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        SecurityContextHolder.clearContext();
+        return principal;
+    }
+
+    private static JwtFilter filter(JwtUtil jwtUtil, JwtTokenCache tokenCache) {
+        JwtFilter filter = new JwtFilter();
+        ReflectionTestUtils.setField(filter, "jwtUtil", jwtUtil);
+        ReflectionTestUtils.setField(filter, "tokenCache", tokenCache);
+        return filter;
+    }
+}
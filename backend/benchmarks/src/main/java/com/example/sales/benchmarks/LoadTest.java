@@ -0,0 +1,188 @@
+package com.example.sales.benchmarks;
+
+import com.example.sales.SalesManagementApplication;
+import com.example.sales.security.JwtUtil;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// Closed-loop HTTP load test comparing request handling on Tomcat's platform thread pool with virtual threads.
+// Each mode gets a freshly seeded application and the same mix of authenticated read requests from a fixed
+// number of concurrent clients; requests/sec and latency percentiles go to stdout and target/loadtest-result.json.
+//
+// Options (all optional): --sales=100000 --products=1000 --clients=400 --warmup-seconds=10 --seconds=30
+//                         --db-latency-ms=5 --modes=platform,virtual
+public class LoadTest {
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+        int sales = Integer.parseInt(options.getOrDefault("sales", "100000"));
+        int products = Integer.parseInt(options.getOrDefault("products", "1000"));
+        int clients = Integer.parseInt(options.getOrDefault("clients", "400"));
+        int warmupSeconds = Integer.parseInt(options.getOrDefault("warmup-seconds", "10"));
+        int seconds = Integer.parseInt(options.getOrDefault("seconds", "30"));
+        long dbLatencyMillis = Long.parseLong(options.getOrDefault("db-latency-ms", "5"));
+        List<String> modes = List.of(options.getOrDefault("modes", "platform,virtual").split(","));
+
+        List<Map<String, Object>> results = new ArrayList<>();
+        for (String mode : modes) {
+            SpringApplicationBuilder builder = new SpringApplicationBuilder(SalesManagementApplication.class)
+                    .initializers(context -> context.getBeanFactory().addBeanPostProcessor(new SlowDataSource(dbLatencyMillis)))
+                    .properties(
+                            "server.port=0",
+                            "spring.threads.virtual.enabled=" + mode.equals("virtual"),
+                            "spring.datasource.url=jdbc:h2:mem:loadtest-" + mode + ";DB_CLOSE_DELAY=-1",
+                            "spring.sql.init.mode=never",
+                            "spring.h2.console.enabled=false",
+                            "logging.level.root=WARN",
+                            "logging.level.com.example.sales=WARN");
+
+            try (ConfigurableApplicationContext context = BenchmarkData.start(builder, sales, products)) {
+                String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+                String token = context.getBean(JwtUtil.class).generateToken("loadtest");
+                List<String> paths = paths(products);
+
+                run(baseUrl, token, paths, clients, warmupSeconds);
+                Map<String, Object> result = run(baseUrl, token, paths, clients, seconds);
+
+                Map<String, Object> entry = new LinkedHashMap<>();
+                entry.put("mode", mode);
+                entry.put("sales", sales);
+                entry.put("products", products);
+                entry.put("clients", clients);
+                entry.put("dbLatencyMillis", dbLatencyMillis);
+                entry.putAll(result);
+                results.add(entry);
+                System.out.printf("%-8s %10.1f req/s  p50 %7.2f ms  p99 %7.2f ms  errors %d%n", mode,
+                        result.get("requestsPerSecond"), result.get("p50Millis"), result.get("p99Millis"), result.get("errors"));
+            }
+        }
+
+        Path output = Path.of("target", "loadtest-result.json");
+        Files.createDirectories(output.getParent());
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(output.toFile(), results);
+        System.out.println("Results written to " + output.toAbsolutePath());
+    }
+
+    // The dashboard's typical reads: paged lists, a sale by id, a product search and a one-month summary
+    private static List<String> paths(int products) {
+        LocalDate today = LocalDate.now();
+        return List.of(
+                "/api/sales/paginated?page=0&size=20&sortBy=date&direction=desc",
+                "/api/products/paginated?page=0&size=20&sortBy=name&direction=asc",
+                "/api/products/paginated?page=0&size=20&search=uct%20" + Math.max(1, products / 10),
+                "/api/sales/1",
+                "/api/sales-report/summary?from=" + today.minusMonths(1) + "&to=" + today);
+    }
+
+    private static Map<String, Object> run(String baseUrl, String token, List<String> paths, int clients, int seconds)
+            throws Exception {
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        List<HttpRequest> requests = paths.stream()
+                .map(path -> HttpRequest.newBuilder(URI.create(baseUrl + path))
+                        .header("Authorization", "Bearer " + token)
+                        .timeout(Duration.ofSeconds(30))
+                        .build())
+                .toList();
+
+        long deadline = System.nanoTime() + Duration.ofSeconds(seconds).toNanos();
+        List<Future<ClientResult>> futures = new ArrayList<>(clients);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < clients; i++) {
+                int offset = i;
+                futures.add(executor.submit(() -> drive(client, requests, offset, deadline)));
+            }
+        }
+
+        long[] latencies = new long[0];
+        long errors = 0;
+        for (Future<ClientResult> future : futures) {
+            ClientResult result = future.get();
+            int start = latencies.length;
+            latencies = Arrays.copyOf(latencies, start + result.count);
+            System.arraycopy(result.latencies, 0, latencies, start, result.count);
+            errors += result.errors;
+        }
+        Arrays.sort(latencies);
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("requests", latencies.length);
+        result.put("errors", errors);
+        result.put("requestsPerSecond", latencies.length / (double) seconds);
+        result.put("p50Millis", percentile(latencies, 0.50));
+        result.put("p90Millis", percentile(latencies, 0.90));
+        result.put("p99Millis", percentile(latencies, 0.99));
+        result.put("maxMillis", latencies.length == 0 ? 0.0 : latencies[latencies.length - 1] / 1e6);
+        return result;
+    }
+
+    // One closed-loop client: sends the next request as soon as the previous response arrives
+    private static ClientResult drive(HttpClient client, List<HttpRequest> requests, int offset, long deadline) {
+        ClientResult result = new ClientResult();
+        int next = offset;
+        while (System.nanoTime() < deadline) {
+            HttpRequest request = requests.get(next++ % requests.size());
+            long start = System.nanoTime();
+            try {
+                HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                if (response.statusCode() >= 400) result.errors++;
+                else result.record(System.nanoTime() - start);
+            } catch (IOException e) {
+                result.errors++;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        return result;
+    }
+
+    private static double percentile(long[] sorted, double fraction) {
+        if (sorted.length == 0) return 0;
+        int index = (int) Math.ceil(fraction * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1e6;
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new LinkedHashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) throw new IllegalArgumentException("Expected --name=value, got " + arg);
+            options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+        }
+        return options;
+    }
+
+    private static final class ClientResult {
+        private long[] latencies = new long[1024];
+        private int count;
+        private long errors;
+
+        private void record(long nanos) {
+            if (count == latencies.length) latencies = Arrays.copyOf(latencies, count * 2);
+            latencies[count++] = nanos;
+        }
+    }
+}
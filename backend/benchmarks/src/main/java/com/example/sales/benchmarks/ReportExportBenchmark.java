@@ -0,0 +1,47 @@
+package com.example.sales.benchmarks;
+
+import com.example.sales.dto.ReportCompression;
+import com.example.sales.dto.ReportFormat;
+import com.example.sales.service.ReportExportService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ReportExportBenchmark {
+
+    @Param({"XLSX", "CSV", "NDJSON", "COLUMNAR"})
+    public ReportFormat format;
+
+    @Param({"NONE", "GZIP"})
+    public ReportCompression compression;
+
+    private ReportExportService reportExportService;
+
+    @Setup
+    public void setUp(SeededApplication app) {
+        reportExportService = app.bean(ReportExportService.class);
+    }
+
+    @Benchmark
+    public void export() throws IOException {
+        reportExportService.export(format, compression, null, null, OutputStream.nullOutputStream());
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.sales.benchmarks;
+
+import com.example.sales.entity.Product;
+import com.example.sales.entity.Sale;
+import com.example.sales.service.SaleService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Concurrent checkouts: "hot" sends every sale to the same product and day (worst case for the stock
+// update and the per-day merge), "uniform" spreads them over all products and the last 30 days.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Threads(8)
+@Fork(1)
+public class SaleCreationBenchmark {
+
+    @Param({"hot", "uniform"})
+    public String distribution;
+
+    private SaleService saleService;
+    private int products;
+
+    @Setup
+    public void setUp(SeededApplication app) {
+        saleService = app.bean(SaleService.class);
+        products = app.products;
+    }
+
+    @Benchmark
+    public Sale createSale() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        boolean hot = distribution.equals("hot");
+
+        Product product = new Product();
+        product.setName("Product " + (hot ? 1 : 1 + random.nextInt(products)));
+        Sale sale = new Sale(product, 1 + random.nextInt(3), null,
+                hot ? LocalDate.now() : LocalDate.now().minusDays(random.nextInt(30)));
+        return saleService.createSale(sale);
+    }
+}
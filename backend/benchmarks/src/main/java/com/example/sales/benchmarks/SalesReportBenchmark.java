@@ -0,0 +1,47 @@
+package com.example.sales.benchmarks;
+
+import com.example.sales.dto.SalesReportDto;
+import com.example.sales.service.SalesAggregateStore;
+import com.example.sales.service.SalesReportService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class SalesReportBenchmark {
+
+    private SalesReportService salesReportService;
+    private SalesAggregateStore salesAggregateStore;
+
+    @Setup
+    public void setUp(SeededApplication app) {
+        salesReportService = app.bean(SalesReportService.class);
+        salesAggregateStore = app.bean(SalesAggregateStore.class);
+    }
+
+    @Benchmark
+    public SalesReportDto summary() {
+        return salesReportService.getSalesSummaryWithCharts();
+    }
+
+    // Full recomputation of the summary from the database, as done at startup
+    @Benchmark
+    public SalesReportDto summaryRebuild() {
+        salesAggregateStore.rebuild();
+        return salesAggregateStore.snapshot();
+    }
+}
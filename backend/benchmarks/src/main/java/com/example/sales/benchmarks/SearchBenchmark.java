@@ -0,0 +1,58 @@
+package com.example.sales.benchmarks;
+
+import com.example.sales.dto.SaleListItem;
+import com.example.sales.entity.Product;
+import com.example.sales.service.ProductService;
+import com.example.sales.service.SaleService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Search terms: "uct 7" matches roughly a tenth of the catalog, "product" all of it, "zzz" nothing
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class SearchBenchmark {
+
+    @Param({"uct 7", "product", "zzz"})
+    public String term;
+
+    private ProductService productService;
+    private SaleService saleService;
+
+    @Setup
+    public void setUp(SeededApplication app) {
+        productService = app.bean(ProductService.class);
+        saleService = app.bean(SaleService.class);
+    }
+
+    @Benchmark
+    public Page<Product> productSearch() {
+        return productService.getPaginatedProducts(0, 20, "name", "asc", term);
+    }
+
+    @Benchmark
+    public Page<SaleListItem> saleSearch() {
+        return saleService.getPaginatedSales(0, 20, "date", term, "desc");
+    }
+
+    @Benchmark
+    public List<String> suggest() {
+        return productService.suggestProductNames(term, 10);
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.sales.benchmarks;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+
+// The application seeded with the benchmark's data sizes, shared by all threads of a trial
+@State(Scope.Benchmark)
+public class SeededApplication {
+
+    @Param({"10000"})
+    public int sales;
+
+    @Param({"100"})
+    public int products;
+
+    private ConfigurableApplicationContext context;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = BenchmarkData.start(sales, products);
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        if (context != null) context.close();
+    }
+
+    public <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.sales.benchmarks;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Statement;
+
+// Adds a fixed delay to every statement execution, standing in for the network round trip to a real
+// database server that the in-memory H2 database doesn't have. The delay is a sleep, so a virtual thread
+// waiting on it releases its carrier just as it would on a socket read.
+public class SlowDataSource implements BeanPostProcessor {
+
+    private final long latencyMillis;
+
+    public SlowDataSource(long latencyMillis) {
+        this.latencyMillis = latencyMillis;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (!(bean instanceof DataSource) || latencyMillis <= 0) return bean;
+        return proxy(DataSource.class, bean, (method, result) -> result instanceof Connection
+                ? proxy(Connection.class, result, this::wrapStatement)
+                : result);
+    }
+
+    private Object wrapStatement(Method method, Object result) {
+        if (!(result instanceof Statement statement)) return result;
+        Class<?> type = method.getReturnType();
+        return proxy(type, statement, (call, value) -> value);
+    }
+
+    private Object proxy(Class<?> type, Object target, ResultWrapper wrapper) {
+        InvocationHandler handler = (proxy, method, args) -> {
+            if (method.getName().startsWith("execute")) Thread.sleep(latencyMillis);
+            try {
+                return wrapper.wrap(method, method.invoke(target, args));
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        };
+        return Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{type}, handler);
+    }
+
+    @FunctionalInterface
+    private interface ResultWrapper {
+        Object wrap(Method method, Object result);
+    }
+}
@@ -2,8 +2,13 @@ package com.example.sales;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
+// @Async methods run on the auto-configured task executor, which uses virtual threads when spring.threads.virtual.enabled is set
 @SpringBootApplication
+@EnableAsync
+@EnableScheduling
 public class SalesManagementApplication {
 
     public static void main(String[] args) {
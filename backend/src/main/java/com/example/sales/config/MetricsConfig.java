@@ -0,0 +1,65 @@
+package com.example.sales.config;
+
+import com.example.sales.dto.CacheStats;
+import com.example.sales.metrics.HikariPoolMetrics;
+import com.example.sales.metrics.HttpMetricsFilter;
+import com.example.sales.metrics.MetricsRegistry;
+import com.example.sales.metrics.StatementCounter;
+import com.example.sales.security.JwtTokenCache;
+import com.example.sales.service.ProductCache;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.util.function.Supplier;
+
+@Configuration
+public class MetricsConfig {
+
+    // Outermost filter, so request timings include authentication
+    @Bean
+    public FilterRegistrationBean<HttpMetricsFilter> httpMetricsFilter(MetricsRegistry registry) {
+        FilterRegistrationBean<HttpMetricsFilter> registration = new FilterRegistrationBean<>(new HttpMetricsFilter(registry));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        registration.addUrlPatterns("/api/*");
+        return registration;
+    }
+
+    // The pool's metrics tracker has to be installed before the first connection is handed out. It is installed
+    // before initialization, while the bean is still the pool itself: post-processors that wrap the data source
+    // (the load test's SlowDataSource) may run before this one after initialization.
+    @Bean
+    public static BeanPostProcessor hikariMetrics(ObjectProvider<MetricsRegistry> registry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof HikariDataSource dataSource && dataSource.getMetricsTrackerFactory() == null) {
+                    dataSource.setMetricsTrackerFactory((pool, stats) -> new HikariPoolMetrics(registry.getObject(), pool, stats));
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public SmartInitializingSingleton cacheMetrics(MetricsRegistry registry, ProductCache productCache, JwtTokenCache tokenCache) {
+        return () -> {
+            registerCache(registry, "product", productCache::stats);
+            registerCache(registry, "jwt", tokenCache::stats);
+            registry.counter("hibernate_statements_total", "SQL statements prepared by Hibernate", StatementCounter::total);
+        };
+    }
+
+    private static void registerCache(MetricsRegistry registry, String cache, Supplier<CacheStats> stats) {
+        registry.counter("cache_gets_total", "Cache lookups", () -> stats.get().getHits(), "cache", cache, "result", "hit");
+        registry.counter("cache_gets_total", "Cache lookups", () -> stats.get().getMisses(), "cache", cache, "result", "miss");
+        registry.counter("cache_evictions_total", "Entries evicted to respect the size bound", () -> stats.get().getEvictions(), "cache", cache);
+        registry.gauge("cache_size", "Entries currently cached", () -> stats.get().getSize(), "cache", cache);
+        registry.gauge("cache_hit_ratio", "Hits over lookups since startup", () -> stats.get().getHitRate(), "cache", cache);
+    }
+}
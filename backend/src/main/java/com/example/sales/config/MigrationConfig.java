@@ -0,0 +1,27 @@
+package com.example.sales.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.EntityManagerFactoryDependsOnPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+// Enabled by the file profile (application-file.properties); the in-memory default keeps ddl-auto and data.sql
+@Configuration
+@ConditionalOnProperty(name = "db.migrations.enabled", havingValue = "true")
+public class MigrationConfig {
+
+    @Bean
+    public SchemaMigrator schemaMigrator(DataSource dataSource,
+                                         @Value("${db.migrations.location:classpath:db/migration}") String location) {
+        return new SchemaMigrator(dataSource, location);
+    }
+
+    // Hibernate validates the schema on startup, so migrations have to run first
+    @Bean
+    public static EntityManagerFactoryDependsOnPostProcessor entityManagerFactoryDependsOnSchemaMigrator() {
+        return new EntityManagerFactoryDependsOnPostProcessor("schemaMigrator");
+    }
+}
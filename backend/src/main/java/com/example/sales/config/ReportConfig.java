@@ -0,0 +1,19 @@
+package com.example.sales.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ForkJoinPool;
+
+@Configuration
+public class ReportConfig {
+
+    // CPU-bound report work (scans of the columnar store), kept off the common pool so request-path parallel
+    // streams and reports don't compete; 0 means one worker per core
+    @Bean(destroyMethod = "shutdownNow")
+    public ForkJoinPool reportPool(@Value("${report.parallelism:0}") int parallelism) {
+        if (parallelism < 0) throw new IllegalArgumentException("report.parallelism must not be negative");
+        return new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.sales.config;
+
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+
+// Versioned schema migrations for persistent databases. Scripts named V<version>__<description>.sql are
+// applied once each, in version order, and recorded in schema_history with a checksum; a script that was
+// edited after it ran fails startup instead of leaving the schema and the history out of step.
+public class SchemaMigrator implements InitializingBean {
+
+    private static final Pattern SCRIPT_NAME = Pattern.compile("V(\\d+)__(\\w+)\\.sql");
+
+    private final DataSource dataSource;
+    private final String location;
+
+    public SchemaMigrator(DataSource dataSource, String location) {
+        this.dataSource = dataSource;
+        this.location = location;
+    }
+
+    @Override
+    public void afterPropertiesSet() throws Exception {
+        List<Migration> migrations = findMigrations();
+        try (Connection connection = dataSource.getConnection()) {
+            createHistoryTable(connection);
+            Map<Integer, Long> applied = appliedChecksums(connection);
+            for (Migration migration : migrations) {
+                Long checksum = applied.get(migration.version);
+                if (checksum == null) {
+                    apply(connection, migration);
+                } else if (checksum != migration.checksum) {
+                    throw new IllegalStateException("Migration " + migration.resource.getFilename()
+                            + " was changed after it was applied");
+                }
+            }
+        }
+    }
+
+    private List<Migration> findMigrations() throws IOException {
+        List<Migration> migrations = new ArrayList<>();
+        for (Resource resource : new PathMatchingResourcePatternResolver().getResources(location + "/V*__*.sql")) {
+            Matcher matcher = SCRIPT_NAME.matcher(resource.getFilename());
+            if (!matcher.matches()) throw new IllegalStateException("Unexpected migration name: " + resource.getFilename());
+            migrations.add(new Migration(Integer.parseInt(matcher.group(1)), matcher.group(2).replace('_', ' '),
+                    checksum(resource), resource));
+        }
+        migrations.sort(Comparator.comparingInt(Migration::version));
+        for (int i = 1; i < migrations.size(); i++) {
+            if (migrations.get(i).version == migrations.get(i - 1).version)
+                throw new IllegalStateException("Duplicate migration version " + migrations.get(i).version);
+        }
+        return migrations;
+    }
+
+    private static void createHistoryTable(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE IF NOT EXISTS schema_history ("
+                    + "version INTEGER PRIMARY KEY, description VARCHAR(200) NOT NULL, checksum BIGINT NOT NULL, "
+                    + "installed_on TIMESTAMP NOT NULL, execution_ms BIGINT NOT NULL)");
+        }
+    }
+
+    private static Map<Integer, Long> appliedChecksums(Connection connection) throws SQLException {
+        Map<Integer, Long> applied = new HashMap<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet rows = statement.executeQuery("SELECT version, checksum FROM schema_history")) {
+            while (rows.next()) applied.put(rows.getInt(1), rows.getLong(2));
+        }
+        return applied;
+    }
+
+    // Row changes in a script commit together with its history entry (DDL commits implicitly in H2)
+    private static void apply(Connection connection, Migration migration) throws SQLException {
+        long start = System.nanoTime();
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        try {
+            ScriptUtils.executeSqlScript(connection, migration.resource);
+            try (PreparedStatement insert = connection.prepareStatement(
+                    "INSERT INTO schema_history (version, description, checksum, installed_on, execution_ms) VALUES (?, ?, ?, ?, ?)")) {
+                insert.setInt(1, migration.version);
+                insert.setString(2, migration.description);
+                insert.setLong(3, migration.checksum);
+                insert.setTimestamp(4, Timestamp.from(Instant.now()));
+                insert.setLong(5, (System.nanoTime() - start) / 1_000_000);
+                insert.executeUpdate();
+            }
+            connection.commit();
+        } catch (SQLException | RuntimeException e) {
+            connection.rollback();
+            throw e;
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+
+    private static long checksum(Resource resource) throws IOException {
+        CRC32 crc = new CRC32();
+        try (InputStream in = resource.getInputStream()) {
+            crc.update(in.readAllBytes());
+        }
+        return crc.getValue();
+    }
+
+    private record Migration(int version, String description, long checksum, Resource resource) {}
+}
@@ -15,10 +15,14 @@ public class SecurityConfig {
     @Autowired
     private JwtFilter jwtFilter;
 
+    @Autowired
+    private MetricsTokenFilter metricsTokenFilter;
+
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
         http.csrf().disable()
             .authorizeHttpRequests()
+            .requestMatchers("/api/auth/token-cache/**").authenticated()
             .requestMatchers("/api/auth/**").permitAll()
             .requestMatchers("/api/products/active").permitAll() 
             .anyRequest().authenticated()
@@ -26,6 +30,7 @@ public class SecurityConfig {
             .sessionManagement().sessionCreationPolicy(SessionCreationPolicy.STATELESS);
 
         http.addFilterBefore(jwtFilter, UsernamePasswordAuthenticationFilter.class);
+        http.addFilterBefore(metricsTokenFilter, JwtFilter.class);
 
         return http.build();
     }
@@ -1,5 +1,7 @@
 package com.example.sales.controller;
 
+import com.example.sales.dto.TokenCacheStats;
+import com.example.sales.security.JwtFilter;
 import com.example.sales.security.JwtUtil;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
@@ -17,6 +19,9 @@ public class AuthController {
     @Autowired
     private JwtUtil jwtUtil;
 
+    @Autowired
+    private JwtFilter jwtFilter;
+
     @PostMapping("/login")
     public ResponseEntity<?> login(@RequestBody AuthRequest authRequest) {
 
@@ -30,6 +35,12 @@ public class AuthController {
             return ResponseEntity.status(401).body("Invalid credentials");
         }
     }
+
+    // Verified-token cache hit rate and signature verification latency
+    @GetMapping("/token-cache/stats")
+    public ResponseEntity<TokenCacheStats> getTokenCacheStats() {
+        return ResponseEntity.ok(jwtFilter.stats());
+    }
 }
 
 // Request class
@@ -1,12 +1,23 @@
 
 package com.example.sales.controller;
 
+import com.example.sales.dto.BatchResult;
+import com.example.sales.dto.CacheStats;
+import com.example.sales.dto.CursorPage;
 import com.example.sales.entity.Product;
+import com.example.sales.service.CatalogResponseCache;
+import com.example.sales.service.CsvService;
 import com.example.sales.service.ProductService;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.multipart.MultipartFile;
 import org.springframework.data.domain.Page;
+
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 
 @RestController
@@ -16,21 +27,30 @@ import java.util.List;
 public class ProductController {
 
     private final ProductService productService;
+    private final CsvService csvService;
+    private final CatalogResponseCache catalogResponseCache;
 
-    public ProductController(ProductService productService) {
+    public ProductController(ProductService productService, CsvService csvService,
+                             CatalogResponseCache catalogResponseCache) {
         this.productService = productService;
+        this.csvService = csvService;
+        this.catalogResponseCache = catalogResponseCache;
     }
 
+    // Catalog lists answer If-None-Match with 304 and otherwise write pre-serialized JSON
     @GetMapping
-    public ResponseEntity<List<Product>> getAllProducts() {
-        List<Product> products = productService.getAllProducts();
-        return ResponseEntity.ok(products);
+    public ResponseEntity<byte[]> getAllProducts(WebRequest request) {
+        return catalogResponseCache.respond("all", request, productService::getAllProducts);
     }
 
     @GetMapping("/active")
-    public ResponseEntity<List<Product>> getAllActiveProducts() {
-        List<Product> products = productService.getAllActiveProducts();
-        return ResponseEntity.ok(products);
+    public ResponseEntity<byte[]> getAllActiveProducts(WebRequest request) {
+        return catalogResponseCache.respond("active", request, productService::getAllActiveProducts);
+    }
+
+    @GetMapping("/cache/stats")
+    public ResponseEntity<CacheStats> getCacheStats() {
+        return ResponseEntity.ok(productService.getCacheStats());
     }
 
     @GetMapping("/{id}")
@@ -45,6 +65,19 @@ public class ProductController {
         return ResponseEntity.status(HttpStatus.CREATED).body(createdProduct);
     }
 
+    // CSV import: name, price, quantity
+    @PostMapping(value = "/import", consumes = "text/csv")
+    public ResponseEntity<BatchResult> importProductsCsv(InputStream body) throws IOException {
+        return ResponseEntity.ok(csvService.importProducts(body));
+    }
+
+    @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<BatchResult> importProductsCsvFile(@RequestParam("file") MultipartFile file) throws IOException {
+        try (InputStream in = file.getInputStream()) {
+            return ResponseEntity.ok(csvService.importProducts(in));
+        }
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<Product> updateProduct(@PathVariable Long id, @RequestBody Product product) {
         Product updatedProduct = productService.updateProduct(id, product);
@@ -65,7 +98,26 @@ public class ProductController {
             @RequestParam(defaultValue = "id") String sortBy,
             @RequestParam(defaultValue = "asc") String direction
     ) {
-        Page<Product> products = productService.getPaginatedProducts(page, size, search, direction);
+        Page<Product> products = productService.getPaginatedProducts(page, size, sortBy, direction, search);
         return ResponseEntity.ok(products);
     }
+
+    @GetMapping("/suggest")
+    public ResponseEntity<List<String>> suggestProductNames(
+            @RequestParam(defaultValue = "") String q,
+            @RequestParam(defaultValue = "10") int limit
+    ) {
+        return ResponseEntity.ok(productService.suggestProductNames(q, limit));
+    }
+
+    @GetMapping("/cursor")
+    public ResponseEntity<CursorPage<Product>> getProductsAfter(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "id") String sortBy,
+            @RequestParam(defaultValue = "asc") String direction,
+            @RequestParam(defaultValue = "false") boolean includeTotal
+    ) {
+        return ResponseEntity.ok(productService.getProductsAfter(cursor, size, sortBy, direction, includeTotal));
+    }
 }
@@ -1,11 +1,27 @@
 package com.example.sales.controller;
 
+import com.example.sales.dto.BatchResult;
+import com.example.sales.dto.CursorPage;
+import com.example.sales.dto.ReportCompression;
+import com.example.sales.dto.ReportFormat;
+import com.example.sales.dto.SaleListItem;
 import com.example.sales.entity.Sale;
+import com.example.sales.service.CsvService;
+import com.example.sales.service.LiveSalesBroadcaster;
+import com.example.sales.service.ReportExportService;
+import com.example.sales.service.SaleBatchService;
 import com.example.sales.service.SaleService;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.data.domain.Page;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 import java.util.Map;
 import java.util.HashMap;
@@ -19,14 +35,29 @@ import java.util.HashMap;
 public class SaleController {
 
     private final SaleService saleService;
+    private final SaleBatchService saleBatchService;
+    private final CsvService csvService;
+    private final ReportExportService reportExportService;
+    private final LiveSalesBroadcaster liveSalesBroadcaster;
 
-    public SaleController(SaleService saleService) {
+    public SaleController(SaleService saleService, SaleBatchService saleBatchService, CsvService csvService,
+                          ReportExportService reportExportService, LiveSalesBroadcaster liveSalesBroadcaster) {
         this.saleService = saleService;
+        this.saleBatchService = saleBatchService;
+        this.csvService = csvService;
+        this.reportExportService = reportExportService;
+        this.liveSalesBroadcaster = liveSalesBroadcaster;
+    }
+
+    // Server-sent events with live sales and dashboard deltas; see LiveSalesBroadcaster for the event types
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamSales() {
+        return liveSalesBroadcaster.subscribe();
     }
 
     @GetMapping
-    public ResponseEntity<List<Sale>> getAllSales() {
-        List<Sale> sales = saleService.getAllSales();
+    public ResponseEntity<List<SaleListItem>> getAllSales() {
+        List<SaleListItem> sales = saleService.getAllSales();
         return ResponseEntity.ok(sales);
     }
 
@@ -49,6 +80,34 @@ public class SaleController {
                     .body("Failed to create sale");
         }
     }
+    // Bulk ingestion: a JSON array or an NDJSON stream of {productName, quantity, date}
+    @PostMapping(value = "/batch", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<BatchResult> createSalesBatch(InputStream body) throws IOException {
+        return ResponseEntity.ok(saleBatchService.ingest(body));
+    }
+
+    // CSV import: productName, quantity, date
+    @PostMapping(value = "/import", consumes = "text/csv")
+    public ResponseEntity<BatchResult> importSalesCsv(InputStream body) throws IOException {
+        return ResponseEntity.ok(csvService.importSales(body));
+    }
+
+    @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<BatchResult> importSalesCsvFile(@RequestParam("file") MultipartFile file) throws IOException {
+        try (InputStream in = file.getInputStream()) {
+            return ResponseEntity.ok(csvService.importSales(in));
+        }
+    }
+
+    @GetMapping("/export/csv")
+    public ResponseEntity<StreamingResponseBody> exportSalesCsv() {
+        StreamingResponseBody body = out -> reportExportService.export(ReportFormat.CSV, ReportCompression.NONE, null, null, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("text/csv"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"sales.csv\"")
+                .body(body);
+    }
+
 @GetMapping("/paginated")
 public Map<String, Object> getPaginatedSales(
         @RequestParam(defaultValue = "0") int page,
@@ -57,7 +116,7 @@ public Map<String, Object> getPaginatedSales(
         @RequestParam(defaultValue = "asc") String direction,
         @RequestParam(defaultValue = "") String search) {
 
-    Page<Sale> pagedResult = saleService.getPaginatedSales(page, size, sortBy, search, direction);
+    Page<SaleListItem> pagedResult = saleService.getPaginatedSales(page, size, sortBy, search, direction);
 
     Map<String, Object> response = new HashMap<>();
     
@@ -67,4 +126,15 @@ public Map<String, Object> getPaginatedSales(
     return response;
 }
 
+    @GetMapping("/cursor")
+    public ResponseEntity<CursorPage<SaleListItem>> getSalesAfter(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "id") String sortBy,
+            @RequestParam(defaultValue = "asc") String direction,
+            @RequestParam(defaultValue = "") String search,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+        return ResponseEntity.ok(saleService.getSalesAfter(cursor, size, sortBy, direction, search, includeTotal));
+    }
+
 }
@@ -1,14 +1,33 @@
 package com.example.sales.controller;
 
+import com.example.sales.dto.ReportCompression;
+import com.example.sales.dto.ReportFormat;
+import com.example.sales.dto.ReportJobDto;
+import com.example.sales.dto.ReportJobRequest;
+import com.example.sales.dto.ReportSnapshotDto;
 import com.example.sales.dto.SalesReportDto;
+import com.example.sales.service.ReportExportService;
+import com.example.sales.service.ReportJobService;
+import com.example.sales.service.ReportSnapshotService;
 import com.example.sales.service.SalesReportService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ContentDisposition;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
 
 @RestController
 @RequestMapping("/api/sales-report")
@@ -17,30 +36,144 @@ import java.io.IOException;
 public class SalesReportController {
 
     private final SalesReportService salesReportService;
+    private final ReportExportService reportExportService;
+    private final ReportJobService reportJobService;
+    private final ReportSnapshotService reportSnapshotService;
 
-    public SalesReportController(SalesReportService salesReportService) {
+    public SalesReportController(SalesReportService salesReportService, ReportExportService reportExportService,
+                                 ReportJobService reportJobService, ReportSnapshotService reportSnapshotService) {
         this.salesReportService = salesReportService;
+        this.reportExportService = reportExportService;
+        this.reportJobService = reportJobService;
+        this.reportSnapshotService = reportSnapshotService;
     }
 
-    // Dashboard summary
+    // Dashboard summary, optionally limited to a date range (inclusive), a single product and the top N products
     @GetMapping("/summary")
-    public ResponseEntity<SalesReportDto> getSalesSummary() {
-        SalesReportDto report = salesReportService.getSalesSummaryWithCharts();
+    public ResponseEntity<SalesReportDto> getSalesSummary(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) Long productId,
+            @RequestParam(required = false) Integer topN) {
+        SalesReportDto report = salesReportService.getSalesSummary(from, to, productId, topN);
         return ResponseEntity.ok(report);
     }
 
-    // Download Excel report
+    // Download Excel report, optionally limited to a date range (inclusive), streamed straight to the client.
+    // A closed day or month is sent from its pre-generated snapshot when there is one.
     @GetMapping("/excel")
-    public ResponseEntity<byte[]> downloadExcel() throws IOException {
-        byte[] excelData = salesReportService.generateExcelReport();
+    public ResponseEntity<StreamingResponseBody> downloadExcel(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            HttpServletRequest request, HttpServletResponse response) throws IOException {
+        if (from != null && to != null && from.isAfter(to)) throw new IllegalArgumentException("from must not be after to");
+        Path snapshot = reportSnapshotService.find(ReportFormat.XLSX, ReportCompression.NONE, from, to);
+        if (snapshot != null) {
+            sendFile(snapshot, downloadHeaders(ReportFormat.XLSX, ReportCompression.NONE), request, response);
+            return null;
+        }
 
+        StreamingResponseBody excelData = out ->
+                reportExportService.export(ReportFormat.XLSX, ReportCompression.NONE, from, to, out);
+        return new ResponseEntity<>(excelData, downloadHeaders(ReportFormat.XLSX, ReportCompression.NONE), HttpStatus.OK);
+    }
+
+    // Sales export streamed straight to the client. The format comes from ?format= (name or extension, e.g. csv,
+    // ndjson, columnar) or else the first supported type in the Accept header, and defaults to XLSX;
+    // ?compression=gzip compresses on the fly. An uncompressed export of exactly one closed day or month is sent
+    // from its pre-generated snapshot when there is one.
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(
+            @RequestParam(required = false) String format,
+            @RequestParam(required = false) String compression,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            HttpServletRequest request, HttpServletResponse response) throws IOException {
+        // Checked before the body starts streaming, while an error can still become a 400
+        if (from != null && to != null && from.isAfter(to)) throw new IllegalArgumentException("from must not be after to");
+        ReportFormat reportFormat = format != null && !format.isBlank() ? ReportFormat.parse(format.trim()) : acceptedFormat(accept);
+        ReportCompression reportCompression = compression != null && !compression.isBlank()
+                ? ReportCompression.parse(compression.trim())
+                : ReportCompression.NONE;
+
+        Path snapshot = reportSnapshotService.find(reportFormat, reportCompression, from, to);
+        if (snapshot != null) {
+            sendFile(snapshot, downloadHeaders(reportFormat, reportCompression), request, response);
+            return null;
+        }
+
+        StreamingResponseBody body = out -> reportExportService.export(reportFormat, reportCompression, from, to, out);
+        return new ResponseEntity<>(body, downloadHeaders(reportFormat, reportCompression), HttpStatus.OK);
+    }
+
+    // Pre-generated snapshots of closed days and months, newest first
+    @GetMapping("/snapshots")
+    public ResponseEntity<List<ReportSnapshotDto>> getSnapshots() {
+        return ResponseEntity.ok(reportSnapshotService.getSnapshots());
+    }
+
+    // Queue a report for background generation; poll the returned job and download the file once it is DONE
+    @PostMapping("/jobs")
+    public ResponseEntity<ReportJobDto> submitReportJob(@RequestBody ReportJobRequest request) {
+        ReportJobDto job = reportJobService.submit(request);
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/sales-report/jobs/" + job.getId()))
+                .body(job);
+    }
+
+    @GetMapping("/jobs/{id}")
+    public ResponseEntity<ReportJobDto> getReportJob(@PathVariable String id) {
+        return ResponseEntity.ok(reportJobService.getJob(id));
+    }
+
+    @GetMapping("/jobs/{id}/file")
+    public ResponseEntity<?> downloadReportJob(@PathVariable String id) {
+        Path file = reportJobService.getFile(id);
+        if (file == null) return ResponseEntity.status(HttpStatus.CONFLICT).body(reportJobService.getJob(id));
+
+        ReportJobDto job = reportJobService.getJob(id);
+        return new ResponseEntity<>(new FileSystemResource(file), downloadHeaders(job.getFormat(), job.getCompression()), HttpStatus.OK);
+    }
+
+    // Wildcards don't pick a format; a client that accepts anything gets the default
+    private static ReportFormat acceptedFormat(String accept) {
+        if (accept == null || accept.isBlank()) return ReportFormat.XLSX;
+        List<MediaType> accepted = MediaType.parseMediaTypes(accept);
+        for (MediaType type : accepted) {
+            if (type.isWildcardType() || type.getQualityValue() == 0) continue;
+            for (ReportFormat format : ReportFormat.values()) {
+                if (type.includes(MediaType.parseMediaType(format.getContentType()))) return format;
+            }
+        }
+        return ReportFormat.XLSX;
+    }
+
+    // Zero-copy where the container supports it: Tomcat's sendfile hands the file to the kernel after the handler
+    // returns. Other containers get an ordinary buffered copy into the response stream.
+    private static void sendFile(Path file, HttpHeaders headers, HttpServletRequest request,
+                                 HttpServletResponse response) throws IOException {
+        long size = Files.size(file);
+        response.setStatus(HttpStatus.OK.value());
+        headers.forEach((name, values) -> values.forEach(value -> response.addHeader(name, value)));
+        response.setContentLengthLong(size);
+
+        if (Boolean.TRUE.equals(request.getAttribute("org.apache.tomcat.sendfile.support"))) {
+            request.setAttribute("org.apache.tomcat.sendfile.filename", file.toAbsolutePath().toString());
+            request.setAttribute("org.apache.tomcat.sendfile.start", 0L);
+            request.setAttribute("org.apache.tomcat.sendfile.end", size);
+            return;
+        }
+        Files.copy(file, response.getOutputStream());
+    }
+
+    private static HttpHeaders downloadHeaders(ReportFormat format, ReportCompression compression) {
+        boolean compressed = compression != ReportCompression.NONE;
         HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(org.springframework.http.MediaType.parseMediaType(
-                "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"));
+        headers.setContentType(MediaType.parseMediaType(compressed ? compression.getContentType() : format.getContentType()));
         headers.setContentDisposition(ContentDisposition.builder("attachment")
-                .filename("sales-report.xlsx")
+                .filename("sales-report." + format.getExtension() + (compressed ? "." + compression.getExtension() : ""))
                 .build());
-
-        return new ResponseEntity<>(excelData, headers, HttpStatus.OK);
+        return headers;
     }
 }
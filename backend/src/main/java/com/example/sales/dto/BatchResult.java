@@ -0,0 +1,55 @@
+package com.example.sales.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class BatchResult {
+
+    // Only the first errors are reported in detail; the rest are counted in rejected
+    public static final int MAX_REPORTED_ERRORS = 1000;
+
+    private long received;
+    private long accepted;
+    private long rejected;
+    private int inserted;
+    private int updated;
+    private List<LineError> errors = new ArrayList<>();
+
+    public void addError(Long line, String message) {
+        if (errors.size() < MAX_REPORTED_ERRORS) errors.add(new LineError(line, message));
+    }
+
+    public long getReceived() { return received; }
+    public void setReceived(long received) { this.received = received; }
+
+    public long getAccepted() { return accepted; }
+    public void setAccepted(long accepted) { this.accepted = accepted; }
+
+    public long getRejected() { return rejected; }
+    public void setRejected(long rejected) { this.rejected = rejected; }
+
+    public int getInserted() { return inserted; }
+    public void setInserted(int inserted) { this.inserted = inserted; }
+
+    public int getUpdated() { return updated; }
+    public void setUpdated(int updated) { this.updated = updated; }
+
+    public List<LineError> getErrors() { return errors; }
+    public void setErrors(List<LineError> errors) { this.errors = errors; }
+
+    public static class LineError {
+        private Long line; // null when the error applies to every line of a product
+        private String message;
+
+        public LineError(Long line, String message) {
+            this.line = line;
+            this.message = message;
+        }
+
+        public Long getLine() { return line; }
+        public void setLine(Long line) { this.line = line; }
+
+        public String getMessage() { return message; }
+        public void setMessage(String message) { this.message = message; }
+    }
+}
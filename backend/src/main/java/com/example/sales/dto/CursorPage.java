@@ -0,0 +1,30 @@
+package com.example.sales.dto;
+
+import java.util.List;
+
+public class CursorPage<T> {
+
+    private List<T> content;
+    private String nextCursor;
+    private boolean hasNext;
+    private Long total; // only filled when requested; may lag behind by the count cache TTL
+
+    public CursorPage(List<T> content, String nextCursor, boolean hasNext, Long total) {
+        this.content = content;
+        this.nextCursor = nextCursor;
+        this.hasNext = hasNext;
+        this.total = total;
+    }
+
+    public List<T> getContent() { return content; }
+    public void setContent(List<T> content) { this.content = content; }
+
+    public String getNextCursor() { return nextCursor; }
+    public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
+
+    public boolean isHasNext() { return hasNext; }
+    public void setHasNext(boolean hasNext) { this.hasNext = hasNext; }
+
+    public Long getTotal() { return total; }
+    public void setTotal(Long total) { this.total = total; }
+}
@@ -0,0 +1,8 @@
+package com.example.sales.dto;
+
+// Projection of MIN(id), MAX(id) and COUNT of the matching rows; the ids are null when no row matches
+public interface IdRange {
+    Long getMinId();
+    Long getMaxId();
+    Long getRowCount();
+}
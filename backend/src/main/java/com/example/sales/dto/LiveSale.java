@@ -0,0 +1,36 @@
+package com.example.sales.dto;
+
+import java.time.LocalDate;
+
+// A recorded sale as pushed to live subscribers
+public class LiveSale {
+
+    private Long productId;
+    private String productName;
+    private int quantity;
+    private double amount;
+    private LocalDate date;
+
+    public LiveSale(Long productId, String productName, int quantity, double amount, LocalDate date) {
+        this.productId = productId;
+        this.productName = productName;
+        this.quantity = quantity;
+        this.amount = amount;
+        this.date = date;
+    }
+
+    public Long getProductId() { return productId; }
+    public void setProductId(Long productId) { this.productId = productId; }
+
+    public String getProductName() { return productName; }
+    public void setProductName(String productName) { this.productName = productName; }
+
+    public int getQuantity() { return quantity; }
+    public void setQuantity(int quantity) { this.quantity = quantity; }
+
+    public double getAmount() { return amount; }
+    public void setAmount(double amount) { this.amount = amount; }
+
+    public LocalDate getDate() { return date; }
+    public void setDate(LocalDate date) { this.date = date; }
+}
@@ -0,0 +1,10 @@
+package com.example.sales.dto;
+
+import java.time.LocalDate;
+
+// Projection of SUM(quantity) grouped by product and day
+public interface ProductDayQuantity {
+    Long getProductId();
+    LocalDate getDate();
+    Long getQuantity();
+}
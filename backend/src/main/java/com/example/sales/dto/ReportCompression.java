@@ -0,0 +1,26 @@
+package com.example.sales.dto;
+
+import java.util.Locale;
+
+public enum ReportCompression {
+    NONE(null, null),
+    GZIP("application/gzip", "gz");
+
+    private final String contentType;
+    private final String extension;
+
+    ReportCompression(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public String getContentType() { return contentType; }
+    public String getExtension() { return extension; }
+
+    public static ReportCompression parse(String value) {
+        for (ReportCompression compression : values()) {
+            if (compression.name().equalsIgnoreCase(value)) return compression;
+        }
+        throw new IllegalArgumentException("Unsupported compression: " + value.toLowerCase(Locale.ROOT));
+    }
+}
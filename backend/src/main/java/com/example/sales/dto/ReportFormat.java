@@ -0,0 +1,30 @@
+package com.example.sales.dto;
+
+import java.util.Locale;
+
+public enum ReportFormat {
+    XLSX("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet", "xlsx"),
+    CSV("text/csv", "csv"),
+    NDJSON("application/x-ndjson", "ndjson"),
+    // Column-major binary for bulk loads; layout in ColumnarSaleExporter
+    COLUMNAR("application/vnd.sales.columnar", "salescol");
+
+    private final String contentType;
+    private final String extension;
+
+    ReportFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public String getContentType() { return contentType; }
+    public String getExtension() { return extension; }
+
+    // Accepts the name or the file extension, in any case
+    public static ReportFormat parse(String value) {
+        for (ReportFormat format : values()) {
+            if (format.name().equalsIgnoreCase(value) || format.extension.equalsIgnoreCase(value)) return format;
+        }
+        throw new IllegalArgumentException("Unsupported report format: " + value.toLowerCase(Locale.ROOT));
+    }
+}
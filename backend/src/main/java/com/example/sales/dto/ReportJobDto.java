@@ -0,0 +1,64 @@
+package com.example.sales.dto;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+public class ReportJobDto {
+
+    public enum Status { QUEUED, RUNNING, DONE, FAILED }
+
+    private String id;
+    private Status status;
+    private ReportFormat format;
+    private ReportCompression compression;
+    private LocalDate from;
+    private LocalDate to;
+    private Instant createdAt;
+    private Instant completedAt;
+    private Long sizeBytes;
+    private String error;
+
+    public ReportJobDto(String id, Status status, ReportFormat format, ReportCompression compression,
+                        LocalDate from, LocalDate to, Instant createdAt, Instant completedAt, Long sizeBytes, String error) {
+        this.id = id;
+        this.status = status;
+        this.format = format;
+        this.compression = compression;
+        this.from = from;
+        this.to = to;
+        this.createdAt = createdAt;
+        this.completedAt = completedAt;
+        this.sizeBytes = sizeBytes;
+        this.error = error;
+    }
+
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+
+    public Status getStatus() { return status; }
+    public void setStatus(Status status) { this.status = status; }
+
+    public ReportFormat getFormat() { return format; }
+    public void setFormat(ReportFormat format) { this.format = format; }
+
+    public ReportCompression getCompression() { return compression; }
+    public void setCompression(ReportCompression compression) { this.compression = compression; }
+
+    public LocalDate getFrom() { return from; }
+    public void setFrom(LocalDate from) { this.from = from; }
+
+    public LocalDate getTo() { return to; }
+    public void setTo(LocalDate to) { this.to = to; }
+
+    public Instant getCreatedAt() { return createdAt; }
+    public void setCreatedAt(Instant createdAt) { this.createdAt = createdAt; }
+
+    public Instant getCompletedAt() { return completedAt; }
+    public void setCompletedAt(Instant completedAt) { this.completedAt = completedAt; }
+
+    public Long getSizeBytes() { return sizeBytes; }
+    public void setSizeBytes(Long sizeBytes) { this.sizeBytes = sizeBytes; }
+
+    public String getError() { return error; }
+    public void setError(String error) { this.error = error; }
+}
@@ -0,0 +1,30 @@
+package com.example.sales.dto;
+
+import java.time.LocalDate;
+
+public class ReportJobRequest {
+
+    private ReportFormat format = ReportFormat.XLSX;
+    private ReportCompression compression = ReportCompression.NONE;
+    private LocalDate from;
+    private LocalDate to;
+
+    public ReportJobRequest() {}
+    public ReportJobRequest(ReportFormat format, LocalDate from, LocalDate to) {
+        this.format = format;
+        this.from = from;
+        this.to = to;
+    }
+
+    public ReportFormat getFormat() { return format; }
+    public void setFormat(ReportFormat format) { this.format = format; }
+
+    public ReportCompression getCompression() { return compression; }
+    public void setCompression(ReportCompression compression) { this.compression = compression; }
+
+    public LocalDate getFrom() { return from; }
+    public void setFrom(LocalDate from) { this.from = from; }
+
+    public LocalDate getTo() { return to; }
+    public void setTo(LocalDate to) { this.to = to; }
+}
@@ -0,0 +1,44 @@
+package com.example.sales.dto;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+public class ReportSnapshotDto {
+
+    public enum Period { DAY, MONTH }
+
+    private Period period;
+    private LocalDate from;
+    private LocalDate to;
+    private ReportFormat format;
+    private long sizeBytes;
+    private Instant generatedAt;
+
+    public ReportSnapshotDto(Period period, LocalDate from, LocalDate to, ReportFormat format,
+                             long sizeBytes, Instant generatedAt) {
+        this.period = period;
+        this.from = from;
+        this.to = to;
+        this.format = format;
+        this.sizeBytes = sizeBytes;
+        this.generatedAt = generatedAt;
+    }
+
+    public Period getPeriod() { return period; }
+    public void setPeriod(Period period) { this.period = period; }
+
+    public LocalDate getFrom() { return from; }
+    public void setFrom(LocalDate from) { this.from = from; }
+
+    public LocalDate getTo() { return to; }
+    public void setTo(LocalDate to) { this.to = to; }
+
+    public ReportFormat getFormat() { return format; }
+    public void setFormat(ReportFormat format) { this.format = format; }
+
+    public long getSizeBytes() { return sizeBytes; }
+    public void setSizeBytes(long sizeBytes) { this.sizeBytes = sizeBytes; }
+
+    public Instant getGeneratedAt() { return generatedAt; }
+    public void setGeneratedAt(Instant generatedAt) { this.generatedAt = generatedAt; }
+}
@@ -0,0 +1,26 @@
+package com.example.sales.dto;
+
+import java.time.LocalDate;
+
+public class SaleBatchLine {
+
+    private String productName;
+    private Integer quantity;
+    private LocalDate date;
+
+    public SaleBatchLine() {}
+    public SaleBatchLine(String productName, Integer quantity, LocalDate date) {
+        this.productName = productName;
+        this.quantity = quantity;
+        this.date = date;
+    }
+
+    public String getProductName() { return productName; }
+    public void setProductName(String productName) { this.productName = productName; }
+
+    public Integer getQuantity() { return quantity; }
+    public void setQuantity(Integer quantity) { this.quantity = quantity; }
+
+    public LocalDate getDate() { return date; }
+    public void setDate(LocalDate date) { this.date = date; }
+}
@@ -0,0 +1,34 @@
+package com.example.sales.dto;
+
+import java.time.LocalDate;
+
+// Flat, unmanaged view of a sale used by the export paths
+public class SaleExportRow {
+
+    private final Long id;
+    private final Long productId;
+    private final String productName;
+    private final int quantity;
+    private final double unitPrice;
+    private final double totalAmount;
+    private final LocalDate date;
+
+    public SaleExportRow(Long id, Long productId, String productName, Integer quantity,
+                         Double unitPrice, Double totalAmount, LocalDate date) {
+        this.id = id;
+        this.productId = productId;
+        this.productName = productName;
+        this.quantity = quantity;
+        this.unitPrice = unitPrice;
+        this.totalAmount = totalAmount;
+        this.date = date;
+    }
+
+    public Long getId() { return id; }
+    public Long getProductId() { return productId; }
+    public String getProductName() { return productName; }
+    public int getQuantity() { return quantity; }
+    public double getUnitPrice() { return unitPrice; }
+    public double getTotalAmount() { return totalAmount; }
+    public LocalDate getDate() { return date; }
+}
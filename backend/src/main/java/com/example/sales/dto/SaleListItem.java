@@ -0,0 +1,36 @@
+package com.example.sales.dto;
+
+import java.time.LocalDate;
+
+// Slim row for sale listings, selected directly by JPQL so no Sale or Product entity is materialized
+public class SaleListItem {
+
+    private Long id;
+    private String productName;
+    private Integer quantity;
+    private Double totalAmount;
+    private LocalDate date;
+
+    public SaleListItem(Long id, String productName, Integer quantity, Double totalAmount, LocalDate date) {
+        this.id = id;
+        this.productName = productName;
+        this.quantity = quantity;
+        this.totalAmount = totalAmount;
+        this.date = date;
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getProductName() { return productName; }
+    public void setProductName(String productName) { this.productName = productName; }
+
+    public Integer getQuantity() { return quantity; }
+    public void setQuantity(Integer quantity) { this.quantity = quantity; }
+
+    public Double getTotalAmount() { return totalAmount; }
+    public void setTotalAmount(Double totalAmount) { this.totalAmount = totalAmount; }
+
+    public LocalDate getDate() { return date; }
+    public void setDate(LocalDate date) { this.date = date; }
+}
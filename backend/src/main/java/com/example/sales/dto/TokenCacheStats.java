@@ -0,0 +1,28 @@
+package com.example.sales.dto;
+
+public class TokenCacheStats {
+
+    private CacheStats cache;
+    private long verifications;
+    private double averageVerificationMicros;
+    private double maxVerificationMicros;
+
+    public TokenCacheStats(CacheStats cache, long verifications, double averageVerificationMicros, double maxVerificationMicros) {
+        this.cache = cache;
+        this.verifications = verifications;
+        this.averageVerificationMicros = averageVerificationMicros;
+        this.maxVerificationMicros = maxVerificationMicros;
+    }
+
+    public CacheStats getCache() { return cache; }
+    public void setCache(CacheStats cache) { this.cache = cache; }
+
+    public long getVerifications() { return verifications; }
+    public void setVerifications(long verifications) { this.verifications = verifications; }
+
+    public double getAverageVerificationMicros() { return averageVerificationMicros; }
+    public void setAverageVerificationMicros(double averageVerificationMicros) { this.averageVerificationMicros = averageVerificationMicros; }
+
+    public double getMaxVerificationMicros() { return maxVerificationMicros; }
+    public void setMaxVerificationMicros(double maxVerificationMicros) { this.maxVerificationMicros = maxVerificationMicros; }
+}
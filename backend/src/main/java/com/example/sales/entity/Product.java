@@ -4,9 +4,10 @@ package com.example.sales.entity;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Positive;
+import org.hibernate.annotations.ColumnDefault;
 
 @Entity
-@Table(name = "products")
+@Table(name = "products", indexes = @Index(name = "idx_products_name", columnList = "name"))
 public class Product {
 
     @Id
@@ -26,6 +27,12 @@ public class Product {
 
     @Column(nullable = false)
     private boolean active = true; 
+
+    // Plain SQL writers (stock reservation, bulk upserts, seed data) rely on the column default and bump it themselves
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
  
     public Product() {}
     public Product(String name, Double price, Integer quantity) {
@@ -45,4 +52,6 @@ public class Product {
     public void setQuantity(Integer quantity) { this.quantity = quantity; }
     public boolean isActive() { return active; }
     public void setActive(boolean active) { this.active = active; }
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
 }
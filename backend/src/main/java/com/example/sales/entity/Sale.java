@@ -4,11 +4,16 @@ package com.example.sales.entity;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
+import org.hibernate.annotations.ColumnDefault;
 import java.time.LocalDate;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 
 @Entity
-@Table(name = "sales")
+// One row per product and day: SaleService and SaleBatchService merge further sales into it.
+// The unique key also serves the (product_id, date) lookups the product index used to.
+@Table(name = "sales",
+        uniqueConstraints = @UniqueConstraint(name = "uk_sales_product_date", columnNames = {"product_id", "date"}),
+        indexes = @Index(name = "idx_sales_date", columnList = "date"))
 public class Sale {
 
     @Id
@@ -31,6 +36,12 @@ public class Sale {
     @Column(nullable = false)
     private Double totalAmount;
 
+    // Plain SQL writers (merges, seed data) rely on the column default and bump it themselves
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
     public Sale() {}
     public Sale(Product product, Integer quantity, Double totalAmount, LocalDate date) {
         this.product = product;
@@ -50,4 +61,6 @@ public class Sale {
     public void setDate(LocalDate date) { this.date = date; }
     public Double getTotalAmount() { return totalAmount; }
     public void setTotalAmount(Double totalAmount) { this.totalAmount = totalAmount; }
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
 }
@@ -0,0 +1,37 @@
+package com.example.sales.entity;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.Immutable;
+import org.hibernate.annotations.Subselect;
+import org.hibernate.annotations.Synchronize;
+import java.time.LocalDate;
+
+// Read-only view over every sale, hot rows from sales and compacted ones from sales_rollups, for listings
+@Entity
+@Immutable
+@Subselect("SELECT id, product_id, quantity, total_amount, date FROM sales " +
+           "UNION ALL SELECT id, product_id, quantity, total_amount, date FROM sales_rollups")
+@Synchronize({"sales", "sales_rollups"})
+public class SaleRecord {
+
+    @Id
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "product_id", foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
+    private Product product;
+
+    private Integer quantity;
+
+    private LocalDate date;
+
+    private Double totalAmount;
+
+    protected SaleRecord() {}
+
+    public Long getId() { return id; }
+    public Product getProduct() { return product; }
+    public Integer getQuantity() { return quantity; }
+    public LocalDate getDate() { return date; }
+    public Double getTotalAmount() { return totalAmount; }
+}
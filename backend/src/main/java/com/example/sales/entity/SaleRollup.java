@@ -0,0 +1,40 @@
+package com.example.sales.entity;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.Immutable;
+import java.time.LocalDate;
+
+// Compacted sales of a cold month: one row per product and day, written by SalesPartitions, which only changes it
+// to fold in sales back-dated into the month. The id is the smallest id of the sales it first replaced, so rows
+// keep their identity across compaction.
+@Entity
+@Immutable
+@Table(name = "sales_rollups",
+        uniqueConstraints = @UniqueConstraint(name = "uk_sales_rollups_product_date", columnNames = {"product_id", "date"}),
+        indexes = @Index(name = "idx_sales_rollups_date", columnList = "date"))
+public class SaleRollup {
+
+    @Id
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "product_id", nullable = true)
+    private Product product;
+
+    @Column(nullable = false)
+    private Integer quantity;
+
+    @Column(nullable = false, columnDefinition = "DATE")
+    private LocalDate date;
+
+    @Column(nullable = false)
+    private Double totalAmount;
+
+    protected SaleRollup() {}
+
+    public Long getId() { return id; }
+    public Product getProduct() { return product; }
+    public Integer getQuantity() { return quantity; }
+    public LocalDate getDate() { return date; }
+    public Double getTotalAmount() { return totalAmount; }
+}
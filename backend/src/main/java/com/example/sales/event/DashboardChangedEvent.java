@@ -0,0 +1,16 @@
+package com.example.sales.event;
+
+// Published by SalesAggregateStore once a change is applied. For a sale it carries the figures the sale moved:
+// the running totals, the sale's day and its product. A change without a sale (a price change re-values every
+// day a product was sold on) only says the dashboard must be reloaded.
+public record DashboardChangedEvent(SaleRecordedEvent sale, String productName, double totalSales,
+                                    long totalProductsSold, double daySales, double productSales) {
+
+    public static DashboardChangedEvent reload() {
+        return new DashboardChangedEvent(null, null, 0, 0, 0, 0);
+    }
+
+    public boolean isReload() {
+        return sale == null;
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.sales.event;
+
+// Published by ProductService whenever the catalog changes
+public record ProductChangedEvent(Long productId, ChangeType type, String previousName, String name,
+                                  Double previousPrice, Double price) {
+
+    public enum ChangeType { CREATED, UPDATED, DEACTIVATED, DELETED }
+
+    public boolean nameChanged() {
+        return previousName != null && name != null && !previousName.equals(name);
+    }
+
+    public boolean priceChanged() {
+        return previousPrice != null && price != null && !previousPrice.equals(price);
+    }
+}
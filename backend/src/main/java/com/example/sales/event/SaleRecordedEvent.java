@@ -0,0 +1,7 @@
+package com.example.sales.event;
+
+import java.time.LocalDate;
+
+// Published by the sale write paths; listeners run once the surrounding transaction commits
+public record SaleRecordedEvent(Long productId, LocalDate date, int quantity, double amount) {
+}
@@ -0,0 +1,46 @@
+package com.example.sales.metrics;
+
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.PoolStats;
+
+import java.util.concurrent.atomic.LongAdder;
+
+// Connection pool saturation: pool size gauges plus time spent waiting for a connection and holding one
+public class HikariPoolMetrics implements IMetricsTracker {
+
+    private final Histogram acquire;
+    private final Histogram usage;
+    private final Histogram created;
+    private final LongAdder timeouts = new LongAdder();
+
+    public HikariPoolMetrics(MetricsRegistry registry, String pool, PoolStats stats) {
+        acquire = registry.timer("jdbc_connections_acquire_seconds", "Time spent waiting for a pooled connection", "pool", pool);
+        usage = registry.timer("jdbc_connections_usage_seconds", "Time a connection is held before being returned", "pool", pool);
+        created = registry.timer("jdbc_connections_creation_seconds", "Time to open a new physical connection", "pool", pool);
+        registry.counter("jdbc_connections_timeouts_total", "Connection requests that timed out", timeouts::sum, "pool", pool);
+        registry.gauge("jdbc_connections_active", "Connections in use", stats::getActiveConnections, "pool", pool);
+        registry.gauge("jdbc_connections_idle", "Idle connections", stats::getIdleConnections, "pool", pool);
+        registry.gauge("jdbc_connections_pending", "Threads waiting for a connection", stats::getPendingThreads, "pool", pool);
+        registry.gauge("jdbc_connections_max", "Maximum pool size", stats::getMaxConnections, "pool", pool);
+    }
+
+    @Override
+    public void recordConnectionCreatedMillis(long connectionCreatedMillis) {
+        created.observe(connectionCreatedMillis / 1000.0);
+    }
+
+    @Override
+    public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+        acquire.recordNanos(elapsedAcquiredNanos);
+    }
+
+    @Override
+    public void recordConnectionUsageMillis(long elapsedBorrowedMillis) {
+        usage.observe(elapsedBorrowedMillis / 1000.0);
+    }
+
+    @Override
+    public void recordConnectionTimeout() {
+        timeouts.increment();
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.sales.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+// Fixed-bucket histogram in the Prometheus style. Observations only touch striped adders, so recording on hot
+// paths from many threads doesn't contend; bucket counts are made cumulative when scraped.
+public class Histogram {
+
+    // Seconds; from a cache hit to a slow export
+    static final double[] TIME_BUCKETS = {0.0005, 0.001, 0.0025, 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10, 30, 60};
+    static final double[] COUNT_BUCKETS = {0, 1, 2, 3, 5, 10, 20, 50, 100, 500};
+
+    private final double[] bounds;
+    private final LongAdder[] buckets;
+    private final LongAdder count = new LongAdder();
+    private final DoubleAdder sum = new DoubleAdder();
+    private final LongAccumulator maxBits = new LongAccumulator(Long::max, Double.doubleToLongBits(0));
+
+    Histogram(double[] bounds) {
+        this.bounds = bounds;
+        this.buckets = new LongAdder[bounds.length + 1];
+        for (int i = 0; i < buckets.length; i++) buckets[i] = new LongAdder();
+    }
+
+    public void observe(double value) {
+        int bucket = 0;
+        while (bucket < bounds.length && value > bounds[bucket]) bucket++;
+        buckets[bucket].increment();
+        count.increment();
+        sum.add(value);
+        // Non-negative doubles order the same as their bit patterns
+        if (value > 0) maxBits.accumulate(Double.doubleToLongBits(value));
+    }
+
+    public void recordNanos(long nanos) {
+        observe(nanos / (double) TimeUnit.SECONDS.toNanos(1));
+    }
+
+    // Records the time elapsed since a System.nanoTime() reading and returns the current reading
+    public long recordSince(long startNanos) {
+        long now = System.nanoTime();
+        recordNanos(now - startNanos);
+        return now;
+    }
+
+    double[] bounds() {
+        return bounds;
+    }
+
+    long[] cumulativeCounts() {
+        long[] counts = new long[buckets.length];
+        long running = 0;
+        for (int i = 0; i < buckets.length; i++) {
+            running += buckets[i].sum();
+            counts[i] = running;
+        }
+        return counts;
+    }
+
+    long count() {
+        return count.sum();
+    }
+
+    double sum() {
+        return sum.sum();
+    }
+
+    double max() {
+        return Double.longBitsToDouble(maxBits.get());
+    }
+}
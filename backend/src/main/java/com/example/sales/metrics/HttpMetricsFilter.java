@@ -0,0 +1,72 @@
+package com.example.sales.metrics;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+// Times every request by method, route pattern and status, and records how many Hibernate statements the
+// request thread issued. Streaming responses are recorded when the async response completes.
+public class HttpMetricsFilter extends OncePerRequestFilter {
+
+    private final MetricsRegistry registry;
+
+    public HttpMetricsFilter(MetricsRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long start = System.nanoTime();
+        StatementCounter.takeCurrent();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            long statements = StatementCounter.takeCurrent();
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new AsyncListener() {
+                    @Override
+                    public void onComplete(AsyncEvent event) {
+                        record(request, response, start, statements);
+                    }
+
+                    @Override
+                    public void onTimeout(AsyncEvent event) {}
+
+                    @Override
+                    public void onError(AsyncEvent event) {}
+
+                    @Override
+                    public void onStartAsync(AsyncEvent event) {}
+                });
+            } else {
+                record(request, response, start, statements);
+            }
+        }
+    }
+
+    // Async dispatches are part of the original request and already timed by it
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return true;
+    }
+
+    private void record(HttpServletRequest request, HttpServletResponse response, long start, long statements) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNMATCHED";
+        String method = request.getMethod();
+        String status = String.valueOf(response.getStatus());
+
+        registry.timer("http_server_requests_seconds", "HTTP request latency",
+                "method", method, "uri", uri, "status", status).recordNanos(System.nanoTime() - start);
+        registry.distribution("http_server_requests_statements", "Hibernate statements per HTTP request",
+                "method", method, "uri", uri).observe(statements);
+    }
+}
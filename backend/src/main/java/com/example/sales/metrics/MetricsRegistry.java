@@ -0,0 +1,105 @@
+package com.example.sales.metrics;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Supplier;
+
+// Minimal metrics registry rendered in the Prometheus text format. Histograms are created on first use and
+// kept for the life of the process, so callers on hot paths should hold on to them; gauges and counters are
+// read from their source at scrape time. Labels are given as alternating name/value pairs.
+@Component
+public class MetricsRegistry {
+
+    private enum Type { HISTOGRAM, GAUGE, COUNTER }
+
+    private final Map<String, Family> families = new ConcurrentSkipListMap<>();
+
+    public Histogram timer(String name, String help, String... labels) {
+        return histogram(name, help, Histogram.TIME_BUCKETS, labels);
+    }
+
+    public Histogram distribution(String name, String help, String... labels) {
+        return histogram(name, help, Histogram.COUNT_BUCKETS, labels);
+    }
+
+    public void gauge(String name, String help, Supplier<? extends Number> value, String... labels) {
+        family(name, help, Type.GAUGE).metrics.put(labels(labels), value);
+    }
+
+    // A monotonically increasing value maintained elsewhere, e.g. cache hits
+    public void counter(String name, String help, Supplier<? extends Number> value, String... labels) {
+        family(name, help, Type.COUNTER).metrics.put(labels(labels), value);
+    }
+
+    public String scrape() {
+        StringBuilder out = new StringBuilder(8192);
+        for (Family family : families.values()) {
+            out.append("# HELP ").append(family.name).append(' ').append(family.help).append('\n');
+            out.append("# TYPE ").append(family.name).append(' ').append(family.type.name().toLowerCase()).append('\n');
+            family.metrics.forEach((labels, metric) -> {
+                if (metric instanceof Histogram histogram) writeHistogram(out, family.name, labels, histogram);
+                else sample(out, family.name, labels, ((Supplier<?>) metric).get());
+            });
+            // The exposition format has no max for histograms, so it is a gauge family of its own
+            if (family.type == Type.HISTOGRAM) {
+                String max = family.name + "_max";
+                out.append("# HELP ").append(max).append(" Largest value observed by ").append(family.name).append('\n');
+                out.append("# TYPE ").append(max).append(" gauge\n");
+                family.metrics.forEach((labels, metric) -> sample(out, max, labels, ((Histogram) metric).max()));
+            }
+        }
+        return out.toString();
+    }
+
+    private Histogram histogram(String name, String help, double[] bounds, String... labels) {
+        return (Histogram) family(name, help, Type.HISTOGRAM).metrics
+                .computeIfAbsent(labels(labels), key -> new Histogram(bounds));
+    }
+
+    private Family family(String name, String help, Type type) {
+        Family family = families.computeIfAbsent(name, key -> new Family(name, help, type));
+        if (family.type != type) throw new IllegalArgumentException("Metric " + name + " is already a " + family.type);
+        return family;
+    }
+
+    private static void writeHistogram(StringBuilder out, String name, String labels, Histogram histogram) {
+        double[] bounds = histogram.bounds();
+        long[] counts = histogram.cumulativeCounts();
+        String prefix = labels.isEmpty() ? "" : labels + ",";
+        for (int i = 0; i < bounds.length; i++) {
+            sample(out, name + "_bucket", prefix + "le=\"" + bounds[i] + "\"", counts[i]);
+        }
+        sample(out, name + "_bucket", prefix + "le=\"+Inf\"", counts[counts.length - 1]);
+        sample(out, name + "_sum", labels, histogram.sum());
+        sample(out, name + "_count", labels, histogram.count());
+    }
+
+    private static void sample(StringBuilder out, String name, String labels, Object value) {
+        out.append(name);
+        if (!labels.isEmpty()) out.append('{').append(labels).append('}');
+        out.append(' ').append(value == null ? "NaN" : value).append('\n');
+    }
+
+    private static String labels(String... pairs) {
+        if (pairs.length % 2 != 0) throw new IllegalArgumentException("Labels must be name/value pairs");
+        StringBuilder labels = new StringBuilder();
+        for (int i = 0; i < pairs.length; i += 2) {
+            if (i > 0) labels.append(',');
+            labels.append(pairs[i]).append("=\"").append(escape(pairs[i + 1])).append('"');
+        }
+        return labels.toString();
+    }
+
+    private static String escape(String value) {
+        return value == null ? "" : value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    private record Family(String name, String help, Type type, Map<String, Object> metrics) {
+        private Family(String name, String help, Type type) {
+            this(name, help, type, new ConcurrentSkipListMap<>());
+        }
+    }
+}
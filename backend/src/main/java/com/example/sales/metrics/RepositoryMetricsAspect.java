@@ -0,0 +1,48 @@
+package com.example.sales.metrics;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Times every Spring Data repository call, inherited CRUD methods included, labelled by repository and method
+@Aspect
+@Component
+public class RepositoryMetricsAspect {
+
+    private static final String REPOSITORY_PACKAGE = "com.example.sales.repository";
+
+    private final MetricsRegistry registry;
+    private final Map<String, Histogram> timers = new ConcurrentHashMap<>();
+
+    public RepositoryMetricsAspect(MetricsRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Around("this(org.springframework.data.repository.Repository)")
+    public Object time(ProceedingJoinPoint call) throws Throwable {
+        String repository = repositoryName(call.getThis().getClass());
+        String method = ((MethodSignature) call.getSignature()).getMethod().getName();
+        Histogram timer = timers.computeIfAbsent(repository + "." + method, key -> registry.timer(
+                "repository_query_seconds", "Spring Data repository call latency",
+                "repository", repository, "method", method));
+
+        long start = System.nanoTime();
+        try {
+            return call.proceed();
+        } finally {
+            timer.recordNanos(System.nanoTime() - start);
+        }
+    }
+
+    private static String repositoryName(Class<?> proxyClass) {
+        for (Class<?> type : proxyClass.getInterfaces()) {
+            if (type.getPackageName().equals(REPOSITORY_PACKAGE)) return type.getSimpleName();
+        }
+        return proxyClass.getSimpleName();
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.sales.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.concurrent.atomic.LongAdder;
+
+// Hibernate statement inspector (registered through hibernate.session_factory.statement_inspector) that counts
+// the SQL statements Hibernate prepares, in total and on the current thread, so the HTTP metrics can report
+// statements per request. Statements issued through JdbcTemplate are not seen here.
+public class StatementCounter implements StatementInspector {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final LongAdder TOTAL = new LongAdder();
+    private static final ThreadLocal<long[]> CURRENT = ThreadLocal.withInitial(() -> new long[1]);
+
+    @Override
+    public String inspect(String sql) {
+        TOTAL.increment();
+        CURRENT.get()[0]++;
+        return sql;
+    }
+
+    public static long total() {
+        return TOTAL.sum();
+    }
+
+    // Statements prepared on this thread since the last call
+    public static long takeCurrent() {
+        long[] current = CURRENT.get();
+        long count = current[0];
+        current[0] = 0;
+        return count;
+    }
+}
@@ -1,19 +1,45 @@
 package com.example.sales.repository;
 
 import com.example.sales.entity.Product;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 public interface ProductRepository extends JpaRepository<Product, Long> {
 
+    Page<Product> findByIdInAndActiveTrue(Collection<Long> ids, Pageable pageable);
+
+    // Name search matching too many products to list their ids
     Page<Product> findByNameContainingIgnoreCaseAndActiveTrue(String name, Pageable pageable);
 
     List<Product> findByActiveTrue(); 
    Page<Product> findByActiveTrue(Pageable pageable);
 
     Optional<Product> findByNameIgnoreCaseAndActiveTrue(String name);
+
+    @Query("SELECT p FROM Product p WHERE p.active = true AND LOWER(p.name) IN :names ORDER BY p.id")
+    List<Product> findActiveByLowerNameIn(@Param("names") Collection<String> names);
+
+    // Check-and-decrement in one statement: the row lock is held only for this update and stock can't go negative
+    // Clears the persistence context, so a product loaded earlier in the transaction is read again with the new stock
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Product p SET p.quantity = p.quantity - :quantity, p.version = p.version + 1 " +
+           "WHERE p.id = :id AND p.active = true AND p.quantity >= :quantity")
+    int reserveStock(@Param("id") Long id, @Param("quantity") int quantity);
+
+    // Keyset paging
+    Window<Product> findByActiveTrue(ScrollPosition position, Sort sort, Limit limit);
+
+    long countByActiveTrue();
 }
@@ -0,0 +1,60 @@
+package com.example.sales.repository;
+
+import com.example.sales.dto.SaleListItem;
+import com.example.sales.entity.SaleRecord;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+// Sale listings across hot and compacted rows
+public interface SaleRecordRepository extends Repository<SaleRecord, Long> {
+
+    long count();
+
+    // Listings select the slim projection directly. Product-name search is resolved to ids through
+    // ProductNameIndex before touching sales.
+    @Query("SELECT new com.example.sales.dto.SaleListItem(s.id, p.name, s.quantity, s.totalAmount, s.date) " +
+           "FROM SaleRecord s LEFT JOIN s.product p")
+    List<SaleListItem> findAllListItems();
+
+    @Query(value = "SELECT new com.example.sales.dto.SaleListItem(s.id, p.name, s.quantity, s.totalAmount, s.date) " +
+                   "FROM SaleRecord s LEFT JOIN s.product p",
+           countQuery = "SELECT COUNT(s) FROM SaleRecord s")
+    Page<SaleListItem> findListItems(Pageable pageable);
+
+    @Query(value = "SELECT new com.example.sales.dto.SaleListItem(s.id, p.name, s.quantity, s.totalAmount, s.date) " +
+                   "FROM SaleRecord s JOIN s.product p WHERE p.id IN :productIds",
+           countQuery = "SELECT COUNT(s) FROM SaleRecord s WHERE s.product.id IN :productIds")
+    Page<SaleListItem> findListItemsByProductIdIn(@Param("productIds") Collection<Long> productIds, Pageable pageable);
+
+    long countByProductIdIn(Collection<Long> productIds);
+
+    // Name searches matching too many products to list their ids filter the join instead. The pattern is
+    // lower-case with LIKE wildcards escaped by backslash.
+    @Query(value = "SELECT new com.example.sales.dto.SaleListItem(s.id, p.name, s.quantity, s.totalAmount, s.date) " +
+                   "FROM SaleRecord s JOIN s.product p WHERE LOWER(p.name) LIKE :pattern ESCAPE '\\'",
+           countQuery = "SELECT COUNT(s) FROM SaleRecord s JOIN s.product p WHERE LOWER(p.name) LIKE :pattern ESCAPE '\\'")
+    Page<SaleListItem> findListItemsByProductNameLike(@Param("pattern") String pattern, Pageable pageable);
+
+    long countByProductNameContainingIgnoreCase(String name);
+
+    // Keyset paging
+    @EntityGraph(attributePaths = "product")
+    Window<SaleRecord> findAllBy(ScrollPosition position, Sort sort, Limit limit);
+
+    @EntityGraph(attributePaths = "product")
+    Window<SaleRecord> findByProductIdIn(Collection<Long> productIds, ScrollPosition position, Sort sort, Limit limit);
+
+    @EntityGraph(attributePaths = "product")
+    Window<SaleRecord> findByProductNameContainingIgnoreCase(String name, ScrollPosition position, Sort sort, Limit limit);
+}
@@ -1,9 +1,11 @@
 package com.example.sales.repository;
 
+import com.example.sales.dto.IdRange;
+import com.example.sales.dto.ProductDayQuantity;
+import com.example.sales.dto.SaleExportRow;
 import com.example.sales.entity.Sale;
-import com.example.sales.entity.Product;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -13,27 +15,54 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface SaleRepository extends JpaRepository<Sale, Long> {
 
-    List<Sale> findByProductId(Long productId);
+    boolean existsByProductId(Long productId);
+
+    // Fetch plans: entity reads always bring the product along in the same query, so serialization
+    // never initializes a lazy proxy per row
+    @Override
+    @EntityGraph(attributePaths = "product")
+    Optional<Sale> findById(Long id);
 
     @Modifying
     @Transactional
     @Query("UPDATE Sale s SET s.product = null WHERE s.product.id = :productId")
     void decoupleProduct(@Param("productId") Long productId);
 
-    @Query(
-        value = "SELECT s.* FROM sales s LEFT JOIN products p ON s.product_id = p.id " +
-                "WHERE (:productName IS NULL OR LOWER(p.name) LIKE LOWER(CONCAT('%', :productName, '%')))",
-        nativeQuery = true
-    )
-    Page<Sale> findByProductNameContaining(@Param("productName") String productName, Pageable pageable);
+    // The consolidated row of a product and day; unique through uk_sales_product_date
+    @EntityGraph(attributePaths = "product")
+    Optional<Sale> findByProductIdAndDate(Long productId, LocalDate date);
+
+    @Query("SELECT p.id AS productId, s.date AS date, SUM(s.quantity) AS quantity " +
+           "FROM Sale s LEFT JOIN s.product p GROUP BY p.id, s.date")
+    List<ProductDayQuantity> sumQuantityByProductAndDate();
+
+    // Export chunks are id ranges (afterId, upToId], so they can be fetched independently of each other
+    @Query("SELECT MIN(s.id) AS minId, MAX(s.id) AS maxId, COUNT(s) AS rowCount FROM Sale s")
+    IdRange findIdRange();
+
+    @Query("SELECT MIN(s.id) AS minId, MAX(s.id) AS maxId, COUNT(s) AS rowCount FROM Sale s WHERE s.date BETWEEN :from AND :to")
+    IdRange findIdRangeBetween(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    // Chunk boundaries where ids are sparse: the page picks the id that closes the next chunk
+    @Query("SELECT s.id FROM Sale s WHERE s.id > :afterId ORDER BY s.id")
+    List<Long> findIdsAfter(@Param("afterId") long afterId, Pageable page);
+
+    @Query("SELECT s.id FROM Sale s WHERE s.id > :afterId AND s.date BETWEEN :from AND :to ORDER BY s.id")
+    List<Long> findIdsAfterBetween(@Param("afterId") long afterId, @Param("from") LocalDate from,
+                                   @Param("to") LocalDate to, Pageable page);
 
-    Sale findByProductAndDate(Product product, LocalDate date);
+    @Query("SELECT new com.example.sales.dto.SaleExportRow(s.id, p.id, p.name, s.quantity, p.price, s.totalAmount, s.date) " +
+           "FROM Sale s JOIN s.product p WHERE s.id > :afterId AND s.id <= :upToId ORDER BY s.id")
+    List<SaleExportRow> findExportRows(@Param("afterId") long afterId, @Param("upToId") long upToId);
 
-    @Query("SELECT s FROM Sale s WHERE LOWER(s.product.name) = LOWER(:productName) AND s.date = :date")
-    Sale findByProductNameAndDate(@Param("productName") String productName, @Param("date") LocalDate date);
+    @Query("SELECT new com.example.sales.dto.SaleExportRow(s.id, p.id, p.name, s.quantity, p.price, s.totalAmount, s.date) " +
+           "FROM Sale s JOIN s.product p WHERE s.id > :afterId AND s.id <= :upToId AND s.date BETWEEN :from AND :to ORDER BY s.id")
+    List<SaleExportRow> findExportRowsBetween(@Param("afterId") long afterId, @Param("upToId") long upToId,
+                                              @Param("from") LocalDate from, @Param("to") LocalDate to);
 
 }
@@ -0,0 +1,44 @@
+package com.example.sales.repository;
+
+import com.example.sales.dto.IdRange;
+import com.example.sales.dto.ProductDayQuantity;
+import com.example.sales.dto.SaleExportRow;
+import com.example.sales.entity.SaleRollup;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+// Read side of compacted months; rows are written only by SalesPartitions. The queries mirror the ones
+// on SaleRepository so callers can combine both partitions.
+public interface SaleRollupRepository extends Repository<SaleRollup, Long> {
+
+    @EntityGraph(attributePaths = "product")
+    Optional<SaleRollup> findById(Long id);
+
+    boolean existsByProductId(Long productId);
+
+    @Query("SELECT MAX(r.date) FROM SaleRollup r")
+    LocalDate findMaxDate();
+
+    @Query("SELECT p.id AS productId, r.date AS date, SUM(r.quantity) AS quantity " +
+           "FROM SaleRollup r LEFT JOIN r.product p GROUP BY p.id, r.date")
+    List<ProductDayQuantity> sumQuantityByProductAndDate();
+
+    @Query("SELECT MIN(r.id) AS minId, MAX(r.id) AS maxId, COUNT(r) AS rowCount FROM SaleRollup r WHERE r.date BETWEEN :from AND :to")
+    IdRange findIdRangeBetween(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Query("SELECT r.id FROM SaleRollup r WHERE r.id > :afterId AND r.date BETWEEN :from AND :to ORDER BY r.id")
+    List<Long> findIdsAfterBetween(@Param("afterId") long afterId, @Param("from") LocalDate from,
+                                   @Param("to") LocalDate to, Pageable page);
+
+    @Query("SELECT new com.example.sales.dto.SaleExportRow(r.id, p.id, p.name, r.quantity, p.price, r.totalAmount, r.date) " +
+           "FROM SaleRollup r JOIN r.product p WHERE r.id > :afterId AND r.id <= :upToId AND r.date BETWEEN :from AND :to ORDER BY r.id")
+    List<SaleExportRow> findExportRowsBetween(@Param("afterId") long afterId, @Param("upToId") long upToId,
+                                              @Param("from") LocalDate from, @Param("to") LocalDate to);
+}
@@ -0,0 +1,71 @@
+package com.example.sales.security;
+
+import com.example.sales.dto.CacheStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+// Bounded LRU of already verified tokens, so repeated requests with the same bearer token skip the HMAC check.
+// Entries are keyed by a SHA-256 of the token (raw tokens are never held) and expire with the token itself.
+@Component
+public class JwtTokenCache {
+
+    private final int maxSize;
+    private final Map<String, Entry> entries;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public JwtTokenCache(@Value("${jwt.cache.max-size:10000}") int maxSize) {
+        this.maxSize = maxSize;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                boolean evict = size() > JwtTokenCache.this.maxSize;
+                if (evict) evictions.increment();
+                return evict;
+            }
+        };
+    }
+
+    // Returns the cached username, or null when the token has to be verified
+    public String get(String key) {
+        synchronized (this) {
+            Entry entry = entries.get(key);
+            if (entry != null && entry.expiresAt > System.currentTimeMillis()) {
+                hits.increment();
+                return entry.username;
+            }
+            if (entry != null) entries.remove(key);
+        }
+        misses.increment();
+        return null;
+    }
+
+    public synchronized void put(String key, String username, long expiresAt) {
+        if (expiresAt > System.currentTimeMillis()) entries.put(key, new Entry(username, expiresAt));
+    }
+
+    public synchronized CacheStats stats() {
+        return new CacheStats(hits.sum(), misses.sum(), evictions.sum(), entries.size());
+    }
+
+    public static String key(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private record Entry(String username, long expiresAt) {}
+}
@@ -2,6 +2,7 @@ package com.example.sales.security;
 
 import org.springframework.beans.factory.annotation.Value;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
@@ -14,10 +15,13 @@ import java.util.Date;
 public class JwtUtil {
 
     private final Key signingKey;
+    // Parsers are immutable and thread-safe, so one is built up front instead of per token
+    private final JwtParser parser;
 
     // Inject secret from application.properties
     public JwtUtil(@Value("${jwt.secret}") String secret) {
         this.signingKey = Keys.hmacShaKeyFor(secret.getBytes());
+        this.parser = Jwts.parserBuilder().setSigningKey(signingKey).build();
     }
 
     private Key getSigningKey() {
@@ -41,11 +45,12 @@ public class JwtUtil {
         return !extractClaims(token).getExpiration().before(new Date());
     }
 
+    // Verifies the signature and expiry; throws a JwtException for invalid tokens
+    public Claims verify(String token) {
+        return extractClaims(token);
+    }
+
     private Claims extractClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        return parser.parseClaimsJws(token).getBody();
     }
 }
@@ -0,0 +1,47 @@
+package com.example.sales.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Collections;
+
+// Lets a Prometheus scraper reach /api/metrics with a static bearer token (metrics.scrape-token) instead of a
+// user's JWT, which expires. Without a configured token the endpoint takes a JWT like every other API.
+@Component
+public class MetricsTokenFilter extends OncePerRequestFilter {
+
+    private static final String METRICS_PATH = "/api/metrics";
+
+    private final byte[] scrapeToken;
+
+    public MetricsTokenFilter(@Value("${metrics.scrape-token:}") String scrapeToken) {
+        this.scrapeToken = scrapeToken.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return scrapeToken.length == 0 || !METRICS_PATH.equals(request.getRequestURI());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String authHeader = request.getHeader("Authorization");
+        if (authHeader != null && authHeader.startsWith("Bearer ")
+                && MessageDigest.isEqual(scrapeToken, authHeader.substring(7).getBytes(StandardCharsets.UTF_8))) {
+            SecurityContextHolder.getContext().setAuthentication(
+                    new UsernamePasswordAuthenticationToken("metrics-scraper", null, Collections.emptyList()));
+        }
+        chain.doFilter(request, response);
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.sales.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.WebRequest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+// Conditional GETs and pre-serialized bodies for catalog endpoints. The strong ETag is derived from the
+// catalog version, so a matching If-None-Match is answered with 304 before any query or serialization;
+// otherwise the JSON (and a gzip copy) serialized for the current version is written as-is.
+@Component
+public class CatalogResponseCache {
+
+    // Responses smaller than this are not worth compressing
+    private static final int GZIP_MIN_BYTES = 1024;
+
+    private final ProductCache productCache;
+    private final ObjectMapper objectMapper;
+    // Distinguishes versions across restarts, since the in-memory counter starts over
+    private final String epoch = Long.toHexString(System.currentTimeMillis());
+    private final Map<String, Serialized> responses = new ConcurrentHashMap<>();
+
+    public CatalogResponseCache(ProductCache productCache, ObjectMapper objectMapper) {
+        this.productCache = productCache;
+        this.objectMapper = objectMapper;
+    }
+
+    public ResponseEntity<byte[]> respond(String key, WebRequest request, Supplier<?> loader) {
+        long version = productCache.version();
+        String etag = "\"" + key + "-" + epoch + "-" + version + "\"";
+        if (request.checkNotModified(etag)) return null;
+
+        Serialized serialized = responses.get(key);
+        if (serialized == null || serialized.version != version) {
+            serialized = serialize(version, loader.get());
+            responses.put(key, serialized);
+        }
+
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        boolean gzip = serialized.gzip != null && acceptEncoding != null && acceptEncoding.contains("gzip");
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        return response.body(gzip ? serialized.gzip : serialized.json);
+    }
+
+    private Serialized serialize(long version, Object body) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(body);
+            return new Serialized(version, json, json.length >= GZIP_MIN_BYTES ? gzip(json) : null);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize catalog response", e);
+        }
+    }
+
+    private static byte[] gzip(byte[] json) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(json.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    private record Serialized(long version, byte[] json, byte[] gzip) {}
+}
@@ -0,0 +1,142 @@
+package com.example.sales.service;
+
+import com.example.sales.dto.ReportFormat;
+import com.example.sales.dto.SaleExportRow;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Compact column-major binary for bulk loads. Rows are buffered into groups of up to ROW_GROUP rows and each
+// group is written column by column, so memory is bounded by one group. Big-endian layout:
+//
+//   file   := "SALESCOL" version:u8 group* 0:i32
+//   group  := rows:i32 id product_id product_name quantity unit_price total_amount date
+//   id           rows x zigzag varint, delta from the previous row's id (the first from 0)
+//   product_id   rows x varint
+//   product_name varint count, count x (varint length, UTF-8 bytes), then rows x varint index into that list
+//   quantity     rows x varint
+//   unit_price   rows x f64
+//   total_amount rows x f64
+//   date         rows x zigzag varint, epoch-day delta from the previous row (the first from 0)
+//
+// Varints are unsigned LEB128. Deltas and dictionaries restart with every group, so groups decode independently.
+@Component
+public class ColumnarSaleExporter implements SaleExporter {
+
+    private static final byte[] MAGIC = "SALESCOL".getBytes(StandardCharsets.US_ASCII);
+    private static final int VERSION = 1;
+    private static final int ROW_GROUP = 1 << 16;
+
+    @Override
+    public ReportFormat format() {
+        return ReportFormat.COLUMNAR;
+    }
+
+    @Override
+    public RowWriter open(OutputStream out) throws IOException {
+        DataOutputStream data = new DataOutputStream(new BufferedOutputStream(out, 1 << 16));
+        data.write(MAGIC);
+        data.writeByte(VERSION);
+        return new ColumnarRowWriter(data);
+    }
+
+    private static final class ColumnarRowWriter implements RowWriter {
+        private final DataOutputStream out;
+        private final long[] ids = new long[ROW_GROUP];
+        private final long[] productIds = new long[ROW_GROUP];
+        private final int[] nameCodes = new int[ROW_GROUP];
+        private final int[] quantities = new int[ROW_GROUP];
+        private final double[] unitPrices = new double[ROW_GROUP];
+        private final double[] totalAmounts = new double[ROW_GROUP];
+        private final long[] epochDays = new long[ROW_GROUP];
+        private final Map<String, Integer> nameCodesByName = new HashMap<>();
+        private final List<String> names = new ArrayList<>();
+        private int rows;
+
+        private ColumnarRowWriter(DataOutputStream out) {
+            this.out = out;
+        }
+
+        @Override
+        public void write(SaleExportRow row) throws IOException {
+            ids[rows] = row.getId();
+            productIds[rows] = row.getProductId();
+            nameCodes[rows] = nameCodesByName.computeIfAbsent(row.getProductName(), name -> {
+                names.add(name);
+                return names.size() - 1;
+            });
+            quantities[rows] = row.getQuantity();
+            unitPrices[rows] = row.getUnitPrice();
+            totalAmounts[rows] = row.getTotalAmount();
+            epochDays[rows] = row.getDate().toEpochDay();
+            if (++rows == ROW_GROUP) writeGroup();
+        }
+
+        @Override
+        public void finish() throws IOException {
+            if (rows > 0) writeGroup();
+            out.writeInt(0);
+            out.flush();
+        }
+
+        private void writeGroup() throws IOException {
+            out.writeInt(rows);
+
+            long previous = 0;
+            for (int i = 0; i < rows; i++) {
+                writeVarLong(zigzag(ids[i] - previous));
+                previous = ids[i];
+            }
+            for (int i = 0; i < rows; i++) {
+                writeVarLong(productIds[i]);
+            }
+            writeVarLong(names.size());
+            for (String name : names) {
+                byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+                writeVarLong(bytes.length);
+                out.write(bytes);
+            }
+            for (int i = 0; i < rows; i++) {
+                writeVarLong(nameCodes[i]);
+            }
+            for (int i = 0; i < rows; i++) {
+                writeVarLong(quantities[i]);
+            }
+            for (int i = 0; i < rows; i++) {
+                out.writeDouble(unitPrices[i]);
+            }
+            for (int i = 0; i < rows; i++) {
+                out.writeDouble(totalAmounts[i]);
+            }
+            previous = 0;
+            for (int i = 0; i < rows; i++) {
+                writeVarLong(zigzag(epochDays[i] - previous));
+                previous = epochDays[i];
+            }
+
+            rows = 0;
+            names.clear();
+            nameCodesByName.clear();
+        }
+
+        private void writeVarLong(long value) throws IOException {
+            while ((value & ~0x7FL) != 0) {
+                out.writeByte((int) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            out.writeByte((int) value);
+        }
+
+        private static long zigzag(long value) {
+            return (value << 1) ^ (value >> 63);
+        }
+    }
+}
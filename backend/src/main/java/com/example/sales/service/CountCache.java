@@ -0,0 +1,31 @@
+package com.example.sales.service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+// Short-lived cache for COUNT(*) results so paging with totals doesn't pay a full count on every page
+public class CountCache {
+
+    private static final int MAX_ENTRIES = 1000;
+
+    private final long ttlMillis;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    public CountCache(long ttlMillis) {
+        this.ttlMillis = ttlMillis;
+    }
+
+    public long get(String key, LongSupplier counter) {
+        long now = System.currentTimeMillis();
+        Entry entry = entries.get(key);
+        if (entry != null && entry.expiresAt > now) return entry.count;
+
+        if (entries.size() >= MAX_ENTRIES) entries.clear();
+        long count = counter.getAsLong();
+        entries.put(key, new Entry(count, now + ttlMillis));
+        return count;
+    }
+
+    private record Entry(long count, long expiresAt) {}
+}
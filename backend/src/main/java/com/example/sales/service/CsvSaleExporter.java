@@ -0,0 +1,43 @@
+package com.example.sales.service;
+
+import com.example.sales.dto.ReportFormat;
+import com.example.sales.dto.SaleExportRow;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVPrinter;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+
+@Component
+public class CsvSaleExporter implements SaleExporter {
+
+    private static final CSVFormat SALE_EXPORT_FORMAT = CSVFormat.DEFAULT.builder()
+            .setHeader("id", "productName", "quantity", "unitPrice", "totalAmount", "date")
+            .build();
+
+    @Override
+    public ReportFormat format() {
+        return ReportFormat.CSV;
+    }
+
+    @Override
+    public RowWriter open(OutputStream out) throws IOException {
+        CSVPrinter printer = new CSVPrinter(new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8)), SALE_EXPORT_FORMAT);
+        return new RowWriter() {
+            @Override
+            public void write(SaleExportRow row) throws IOException {
+                printer.printRecord(row.getId(), row.getProductName(), row.getQuantity(),
+                        row.getUnitPrice(), row.getTotalAmount(), row.getDate());
+            }
+
+            @Override
+            public void finish() throws IOException {
+                printer.flush();
+            }
+        };
+    }
+}
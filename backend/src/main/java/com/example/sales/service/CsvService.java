@@ -0,0 +1,160 @@
+package com.example.sales.service;
+
+import com.example.sales.dto.BatchResult;
+import com.example.sales.dto.SaleBatchLine;
+import com.example.sales.entity.Product;
+import com.example.sales.service.SaleBatchService.SaleBatch;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+// CSV import; sale exports are written by CsvSaleExporter. Uploads are parsed record by record and handled in
+// chunks: each chunk is validated in parallel and written with batched upserts, so neither the file nor the
+// parsed rows are ever held whole.
+@Service
+public class CsvService {
+
+    private static final int CHUNK_SIZE = 1000;
+
+    private static final CSVFormat IMPORT_FORMAT = CSVFormat.DEFAULT.builder()
+            .setHeader()
+            .setSkipHeaderRecord(true)
+            .setIgnoreEmptyLines(true)
+            .setTrim(true)
+            .build();
+
+    private final ProductService productService;
+    private final SaleBatchService saleBatchService;
+
+    public CsvService(ProductService productService, SaleBatchService saleBatchService) {
+        this.productService = productService;
+        this.saleBatchService = saleBatchService;
+    }
+
+    // Columns: name, price, quantity. Existing active products with the same name are updated.
+    public BatchResult importProducts(InputStream in) throws IOException {
+        BatchResult result = new BatchResult();
+        try (CSVParser parser = IMPORT_FORMAT.parse(reader(in))) {
+            requireColumns(parser, "name", "price", "quantity");
+            forEachChunk(parser, chunk -> {
+                List<Product> valid = new ArrayList<>(chunk.size());
+                for (Parsed<Product> row : validate(chunk, this::toProduct)) {
+                    result.setReceived(result.getReceived() + 1);
+                    if (row.error() != null) {
+                        result.setRejected(result.getRejected() + 1);
+                        result.addError(row.line(), row.error());
+                    } else {
+                        valid.add(row.value());
+                    }
+                }
+                if (!valid.isEmpty()) {
+                    int[] counts = productService.upsertProducts(valid);
+                    result.setInserted(result.getInserted() + counts[0]);
+                    result.setUpdated(result.getUpdated() + counts[1]);
+                }
+            });
+        }
+        result.setAccepted(result.getReceived() - result.getRejected());
+        return result;
+    }
+
+    // Columns: productName, quantity, date. Rows are merged per product and day and written as one sale batch.
+    public BatchResult importSales(InputStream in) throws IOException {
+        SaleBatch batch = new SaleBatch();
+        try (CSVParser parser = IMPORT_FORMAT.parse(reader(in))) {
+            requireColumns(parser, "productName", "quantity", "date");
+            forEachChunk(parser, chunk -> {
+                for (Parsed<SaleBatchLine> row : validate(chunk, this::toSaleLine)) {
+                    if (row.error() != null) batch.reject(row.line(), row.error());
+                    else batch.add(row.line(), row.value());
+                }
+            });
+        }
+        return saleBatchService.write(batch);
+    }
+
+    private Parsed<Product> toProduct(CSVRecord record) {
+        try {
+            String name = record.get("name");
+            if (name.isEmpty()) return Parsed.error(record, "Product name is required");
+            double price = Double.parseDouble(record.get("price"));
+            if (!Double.isFinite(price) || price <= 0) return Parsed.error(record, "Price must be greater than 0");
+            int quantity = Integer.parseInt(record.get("quantity"));
+            if (quantity < 0) return Parsed.error(record, "Quantity must be >= 0");
+            return Parsed.ok(record, new Product(name, price, quantity));
+        } catch (NumberFormatException e) {
+            return Parsed.error(record, "Invalid number: " + e.getMessage());
+        }
+    }
+
+    private Parsed<SaleBatchLine> toSaleLine(CSVRecord record) {
+        try {
+            SaleBatchLine line = new SaleBatchLine(
+                    record.get("productName"),
+                    Integer.valueOf(record.get("quantity")),
+                    record.get("date").isEmpty() ? null : LocalDate.parse(record.get("date")));
+            String error = SaleBatch.validate(line);
+            return error != null ? Parsed.error(record, error) : Parsed.ok(record, line);
+        } catch (NumberFormatException e) {
+            return Parsed.error(record, "Invalid quantity: " + record.get("quantity"));
+        } catch (DateTimeParseException e) {
+            return Parsed.error(record, "Invalid date (expected yyyy-MM-dd): " + record.get("date"));
+        }
+    }
+
+    private static <T> List<Parsed<T>> validate(List<CSVRecord> chunk, Function<CSVRecord, Parsed<T>> parser) {
+        return chunk.parallelStream()
+                .map(record -> record.isConsistent() ? parser.apply(record) : Parsed.<T>error(record, "Wrong number of columns"))
+                .toList();
+    }
+
+    private static void forEachChunk(CSVParser parser, ChunkHandler handler) throws IOException {
+        List<CSVRecord> chunk = new ArrayList<>(CHUNK_SIZE);
+        for (CSVRecord record : parser) {
+            chunk.add(record);
+            if (chunk.size() == CHUNK_SIZE) {
+                handler.accept(chunk);
+                chunk = new ArrayList<>(CHUNK_SIZE);
+            }
+        }
+        if (!chunk.isEmpty()) handler.accept(chunk);
+    }
+
+    private static void requireColumns(CSVParser parser, String... columns) {
+        for (String column : columns) {
+            if (!parser.getHeaderMap().containsKey(column))
+                throw new IllegalArgumentException("Missing CSV column: " + column);
+        }
+    }
+
+    private static BufferedReader reader(InputStream in) {
+        return new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+    }
+
+    @FunctionalInterface
+    private interface ChunkHandler {
+        void accept(List<CSVRecord> chunk) throws IOException;
+    }
+
+    private record Parsed<T>(long line, T value, String error) {
+        static <T> Parsed<T> ok(CSVRecord record, T value) {
+            return new Parsed<>(record.getRecordNumber(), value, null);
+        }
+
+        static <T> Parsed<T> error(CSVRecord record, String error) {
+            return new Parsed<>(record.getRecordNumber(), null, error);
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.example.sales.service;
+
+import com.example.sales.dto.ReportFormat;
+import com.example.sales.dto.SaleExportRow;
+import com.example.sales.service.SalesAggregation.GroupBy;
+import org.apache.poi.ss.usermodel.*;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+
+// Sales sheet plus per-product and per-day summary sheets, written through a windowed workbook so memory
+// stays flat regardless of row count
+@Component
+public class ExcelSaleExporter implements SaleExporter {
+
+    // Rows kept in memory by the streaming workbook before older ones are flushed to a temp file
+    private static final int EXCEL_ROW_WINDOW = 100;
+
+    @Override
+    public ReportFormat format() {
+        return ReportFormat.XLSX;
+    }
+
+    @Override
+    public RowWriter open(OutputStream out) {
+        return new ExcelRowWriter(out);
+    }
+
+    private static final class ExcelRowWriter implements RowWriter {
+        private final OutputStream out;
+        private final SXSSFWorkbook workbook = new SXSSFWorkbook(EXCEL_ROW_WINDOW);
+        private final Sheet sheet;
+        private final CellStyle headerStyle;
+        private final CellStyle cellStyle;
+
+        // Per-product and per-day totals, summed in the same pass as the rows are written
+        private final SalesAggregation byProduct = new SalesAggregation(GroupBy.PRODUCT);
+        private final SalesAggregation byDate = new SalesAggregation(GroupBy.DATE);
+        private final Map<Long, String> productNames = new HashMap<>();
+        private int rowNum = 3;
+
+        private ExcelRowWriter(OutputStream out) {
+            this.out = out;
+            workbook.setCompressTempFiles(true);
+            sheet = workbook.createSheet("Sales Report");
+
+            // --- Styles ---
+            headerStyle = workbook.createCellStyle();
+            Font headerFont = workbook.createFont();
+            headerFont.setBold(true);
+            headerFont.setFontHeightInPoints((short) 14);
+            headerStyle.setFont(headerFont);
+            headerStyle.setAlignment(HorizontalAlignment.CENTER);
+            headerStyle.setVerticalAlignment(VerticalAlignment.CENTER);
+            headerStyle.setFillForegroundColor(IndexedColors.LIGHT_BLUE.getIndex());
+            headerStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
+            headerStyle.setBorderTop(BorderStyle.THIN);
+            headerStyle.setBorderBottom(BorderStyle.THIN);
+            headerStyle.setBorderLeft(BorderStyle.THIN);
+            headerStyle.setBorderRight(BorderStyle.THIN);
+
+            cellStyle = workbook.createCellStyle();
+            cellStyle.setBorderTop(BorderStyle.THIN);
+            cellStyle.setBorderBottom(BorderStyle.THIN);
+            cellStyle.setBorderLeft(BorderStyle.THIN);
+            cellStyle.setBorderRight(BorderStyle.THIN);
+            cellStyle.setAlignment(HorizontalAlignment.LEFT);
+
+            // --- Title row ---
+            Row titleRow = sheet.createRow(0);
+            Cell titleCell = titleRow.createCell(0);
+            titleCell.setCellValue("SALES REPORT");
+            titleCell.setCellStyle(headerStyle);
+            sheet.addMergedRegion(new org.apache.poi.ss.util.CellRangeAddress(0, 0, 0, 5));
+
+            // --- Header row ---
+            String[] headers = {"SL NO", "PRODUCT NAME", "QUANTITY", "UNIT PRICE", "TOTAL", "DATE"};
+            Row headerRow = sheet.createRow(2);
+            for (int i = 0; i < headers.length; i++) {
+                Cell cell = headerRow.createCell(i);
+                cell.setCellValue(headers[i]);
+                cell.setCellStyle(headerStyle);
+                sheet.setColumnWidth(i, 20 * 256);
+            }
+        }
+
+        @Override
+        public void write(SaleExportRow sale) {
+            double total = sale.getUnitPrice() * sale.getQuantity();
+            byProduct.add(sale.getProductId(), sale.getDate(), sale.getQuantity(), total);
+            byDate.add(sale.getProductId(), sale.getDate(), sale.getQuantity(), total);
+            productNames.putIfAbsent(sale.getProductId(), sale.getProductName());
+
+            Row row = sheet.createRow(rowNum++);
+            row.createCell(0).setCellValue(sale.getId());
+            row.createCell(1).setCellValue(sale.getProductName());
+            row.createCell(2).setCellValue(sale.getQuantity());
+            row.createCell(3).setCellValue(sale.getUnitPrice());
+            row.createCell(4).setCellValue(total);
+            row.createCell(5).setCellValue(sale.getDate().toString());
+
+            for (int i = 0; i < 6; i++) {
+                row.getCell(i).setCellStyle(cellStyle);
+            }
+        }
+
+        @Override
+        public void finish() throws IOException {
+            writeSummarySheet(workbook.createSheet("By Product"), "PRODUCT NAME", byProduct,
+                    (productId, epochDay) -> productNames.get(productId));
+            writeSummarySheet(workbook.createSheet("By Date"), "DATE", byDate,
+                    (productId, epochDay) -> LocalDate.ofEpochDay(epochDay).toString());
+            workbook.write(out);
+        }
+
+        @Override
+        public void close() throws IOException {
+            workbook.close();
+            workbook.dispose();
+        }
+
+        private void writeSummarySheet(Sheet summary, String groupHeader, SalesAggregation groups, GroupLabel label) {
+            String[] headers = {groupHeader, "QUANTITY", "TOTAL"};
+            Row headerRow = summary.createRow(0);
+            for (int i = 0; i < headers.length; i++) {
+                Cell cell = headerRow.createCell(i);
+                cell.setCellValue(headers[i]);
+                cell.setCellStyle(headerStyle);
+                summary.setColumnWidth(i, 20 * 256);
+            }
+
+            int[] summaryRow = {1};
+            groups.forEachSorted((productId, epochDay, quantity, amount) -> {
+                Row row = summary.createRow(summaryRow[0]++);
+                row.createCell(0).setCellValue(label.of(productId, epochDay));
+                row.createCell(1).setCellValue(quantity);
+                row.createCell(2).setCellValue(amount);
+                for (int i = 0; i < 3; i++) {
+                    row.getCell(i).setCellStyle(cellStyle);
+                }
+            });
+        }
+    }
+
+    @FunctionalInterface
+    private interface GroupLabel {
+        String of(long productId, long epochDay);
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.sales.service;
+
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+// Opaque continuation tokens for keyset paging. A token carries the sort key, direction and the last row's
+// (sort value, id) pair, so the next page is a seek on an index instead of an OFFSET scan.
+public class KeysetCursor {
+
+    private static final String ID = "id";
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final Map<String, Function<String, Object>> sortKeys;
+
+    // sortKeys maps each sortable property to the parser for its token value
+    public KeysetCursor(Map<String, Function<String, Object>> sortKeys) {
+        this.sortKeys = sortKeys;
+    }
+
+    public String sortKey(String sortBy) {
+        if (sortBy == null || sortBy.isBlank()) return ID;
+        if (!sortKeys.containsKey(sortBy)) throw new IllegalArgumentException("Unsupported sort field: " + sortBy);
+        return sortBy;
+    }
+
+    public Sort sort(String sortBy, Sort.Direction direction) {
+        Sort sort = Sort.by(direction, sortBy);
+        return ID.equals(sortBy) ? sort : sort.and(Sort.by(direction, ID));
+    }
+
+    public KeysetScrollPosition decode(String token, String sortBy, Sort.Direction direction) {
+        if (token == null || token.isBlank()) return ScrollPosition.keyset();
+
+        String[] parts = token.split("\\.");
+        if (parts.length != 4 || !sortBy.equals(text(parts[0])) || !direction.name().equals(text(parts[1])))
+            throw new IllegalArgumentException("Cursor does not match the requested ordering");
+
+        Map<String, Object> keys = new LinkedHashMap<>();
+        try {
+            if (!ID.equals(sortBy)) keys.put(sortBy, sortKeys.get(sortBy).apply(text(parts[2])));
+            keys.put(ID, Long.valueOf(text(parts[3])));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Malformed cursor", e);
+        }
+        return ScrollPosition.forward(keys);
+    }
+
+    public String encode(ScrollPosition position, String sortBy, Sort.Direction direction) {
+        Map<String, Object> keys = ((KeysetScrollPosition) position).getKeys();
+        return String.join(".",
+                token(sortBy),
+                token(direction.name()),
+                token(ID.equals(sortBy) ? "" : String.valueOf(keys.get(sortBy))),
+                token(String.valueOf(keys.get(ID))));
+    }
+
+    private static String token(String value) {
+        return ENCODER.encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String text(String token) {
+        return new String(DECODER.decode(token), StandardCharsets.UTF_8);
+    }
+}
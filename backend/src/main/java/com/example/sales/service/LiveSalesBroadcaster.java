@@ -0,0 +1,211 @@
+package com.example.sales.service;
+
+import com.example.sales.dto.LiveSale;
+import com.example.sales.dto.SalesReportDto;
+import com.example.sales.event.DashboardChangedEvent;
+import com.example.sales.metrics.MetricsRegistry;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+// Pushes recorded sales and dashboard deltas to server-sent event subscribers. Publishing only records the change
+// in each subscriber's pending state and never writes to a connection; a subscriber is flushed on its own virtual
+// thread, one flush at a time, so a slow client holds up nobody else. While a flush is running, further changes
+// coalesce: totals and day/product figures keep only their latest value, and sales queue up to a bound. A
+// subscriber that falls too far behind gets a single "reload" event instead of the backlog.
+//
+// Events: "sale" (LiveSale), "dashboard" (SalesReportDto holding the new totals and only the changed days and
+// products), "reload" (refetch the summary and listings). Idle subscribers cost an open connection and a heartbeat.
+@Component
+public class LiveSalesBroadcaster implements DisposableBean {
+
+    private final int maxPendingSales;
+    private final int maxPendingBuckets;
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final ExecutorService flusher = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("sales-stream-", 0).factory());
+
+    public LiveSalesBroadcaster(MetricsRegistry metricsRegistry,
+                                @Value("${sales.stream.max-pending-sales:100}") int maxPendingSales,
+                                @Value("${sales.stream.max-pending-buckets:500}") int maxPendingBuckets) {
+        this.maxPendingSales = maxPendingSales;
+        this.maxPendingBuckets = maxPendingBuckets;
+        metricsRegistry.gauge("sales_stream_subscribers", "Open live sales streams", subscribers::size);
+    }
+
+    // Clients should subscribe before loading the summary, so no change falls between the two
+    public SseEmitter subscribe() {
+        // No timeout: closed connections surface as failed heartbeats
+        SseEmitter emitter = new SseEmitter(0L);
+        Subscriber subscriber = new Subscriber(emitter);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+        return emitter;
+    }
+
+    @EventListener
+    public void onDashboardChanged(DashboardChangedEvent event) {
+        if (subscribers.isEmpty()) return;
+        for (Subscriber subscriber : subscribers) {
+            synchronized (subscriber) {
+                if (event.isReload()) subscriber.requestReload();
+                else subscriber.add(event);
+            }
+            schedule(subscriber);
+        }
+    }
+
+    // Keeps idle connections open through proxies and detects clients that went away
+    @Scheduled(fixedRateString = "${sales.stream.heartbeat-seconds:25}", timeUnit = TimeUnit.SECONDS)
+    public void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            synchronized (subscriber) {
+                subscriber.heartbeat = true;
+            }
+            schedule(subscriber);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        flusher.shutdownNow();
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        subscribers.clear();
+    }
+
+    private void schedule(Subscriber subscriber) {
+        synchronized (subscriber) {
+            if (subscriber.flushing) return;
+            subscriber.flushing = true;
+        }
+        flusher.execute(() -> flush(subscriber));
+    }
+
+    // Sends whatever is pending, then anything that arrived meanwhile, until nothing is left
+    private void flush(Subscriber subscriber) {
+        while (true) {
+            Batch batch;
+            synchronized (subscriber) {
+                batch = subscriber.drain();
+                if (batch == null) {
+                    subscriber.flushing = false;
+                    return;
+                }
+            }
+            try {
+                batch.send(subscriber.emitter);
+            } catch (IOException | IllegalStateException e) {
+                subscribers.remove(subscriber);
+                subscriber.emitter.completeWithError(e);
+                return;
+            }
+        }
+    }
+
+    // Pending state of one subscriber; guarded by the subscriber's monitor
+    private final class Subscriber {
+        private final SseEmitter emitter;
+        private boolean flushing;
+        private boolean heartbeat;
+        private boolean reload;
+        private final ArrayDeque<LiveSale> sales = new ArrayDeque<>();
+        private final Map<LocalDate, Double> days = new LinkedHashMap<>();
+        private final Map<String, Double> products = new LinkedHashMap<>();
+        private double totalSales;
+        private long totalProductsSold;
+        private boolean totalsChanged;
+
+        private Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        private void add(DashboardChangedEvent event) {
+            if (reload) return;
+            if (sales.size() >= maxPendingSales || days.size() + products.size() >= maxPendingBuckets) {
+                requestReload();
+                return;
+            }
+            sales.add(new LiveSale(event.sale().productId(), event.productName(), event.sale().quantity(),
+                    event.sale().amount(), event.sale().date()));
+            days.put(event.sale().date(), event.daySales());
+            if (event.productName() != null) products.put(event.productName(), event.productSales());
+            totalSales = event.totalSales();
+            totalProductsSold = event.totalProductsSold();
+            totalsChanged = true;
+        }
+
+        // Everything pending is superseded by a full reload
+        private void requestReload() {
+            reload = true;
+            sales.clear();
+            days.clear();
+            products.clear();
+            totalsChanged = false;
+        }
+
+        private Batch drain() {
+            if (!reload && !totalsChanged && sales.isEmpty() && !heartbeat) return null;
+
+            Batch batch = new Batch();
+            batch.reload = reload;
+            batch.heartbeat = heartbeat;
+            batch.sales = new ArrayList<>(sales);
+            if (totalsChanged) {
+                List<SalesReportDto.SalesTrendItem> changedDays = new ArrayList<>(days.size());
+                days.forEach((date, amount) -> changedDays.add(new SalesReportDto.SalesTrendItem(date, amount)));
+                List<SalesReportDto.CategorySalesItem> changedProducts = new ArrayList<>(products.size());
+                products.forEach((name, amount) -> changedProducts.add(new SalesReportDto.CategorySalesItem(name, amount)));
+                batch.dashboard = new SalesReportDto(totalSales, (int) totalProductsSold, changedDays, changedProducts);
+            }
+
+            reload = false;
+            heartbeat = false;
+            totalsChanged = false;
+            sales.clear();
+            days.clear();
+            products.clear();
+            return batch;
+        }
+    }
+
+    private static final class Batch {
+        private boolean reload;
+        private boolean heartbeat;
+        private List<LiveSale> sales;
+        private SalesReportDto dashboard;
+
+        private void send(SseEmitter emitter) throws IOException {
+            if (reload) {
+                emitter.send(SseEmitter.event().name("reload").data(""));
+                return;
+            }
+            for (LiveSale sale : sales) {
+                emitter.send(SseEmitter.event().name("sale").data(sale, MediaType.APPLICATION_JSON));
+            }
+            if (dashboard != null) {
+                emitter.send(SseEmitter.event().name("dashboard").data(dashboard, MediaType.APPLICATION_JSON));
+            } else if (heartbeat && sales.isEmpty()) {
+                emitter.send(SseEmitter.event().comment("heartbeat"));
+            }
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.sales.service;
+
+import com.example.sales.dto.ReportFormat;
+import com.example.sales.dto.SaleExportRow;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.MinimalPrettyPrinter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+// One JSON object per line, written field by field with the streaming generator
+@Component
+public class NdjsonSaleExporter implements SaleExporter {
+
+    private final ObjectMapper objectMapper;
+
+    public NdjsonSaleExporter(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public ReportFormat format() {
+        return ReportFormat.NDJSON;
+    }
+
+    @Override
+    public RowWriter open(OutputStream out) throws IOException {
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        // Each root value is followed by a newline instead of the default space
+        generator.setPrettyPrinter(new MinimalPrettyPrinter("\n"));
+        return new RowWriter() {
+            private boolean empty = true;
+
+            @Override
+            public void write(SaleExportRow row) throws IOException {
+                empty = false;
+                generator.writeStartObject();
+                generator.writeNumberField("id", row.getId());
+                generator.writeNumberField("productId", row.getProductId());
+                generator.writeStringField("productName", row.getProductName());
+                generator.writeNumberField("quantity", row.getQuantity());
+                generator.writeNumberField("unitPrice", row.getUnitPrice());
+                generator.writeNumberField("totalAmount", row.getTotalAmount());
+                generator.writeStringField("date", row.getDate().toString());
+                generator.writeEndObject();
+            }
+
+            @Override
+            public void finish() throws IOException {
+                // Terminates the last line
+                if (!empty) generator.writeRaw('\n');
+                generator.flush();
+            }
+
+            @Override
+            public void close() throws IOException {
+                generator.close();
+            }
+        };
+    }
+}
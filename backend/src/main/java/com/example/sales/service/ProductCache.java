@@ -0,0 +1,162 @@
+package com.example.sales.service;
+
+import com.example.sales.dto.CacheStats;
+import com.example.sales.entity.Product;
+import com.example.sales.event.ProductChangedEvent;
+import com.example.sales.event.SaleRecordedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+// Read-through cache for catalog lookups: a bounded LRU of products by id (with a name -> id side index)
+// and a precomputed active-product list. Every catalog or stock change bumps the version, which drops the
+// affected product and marks the active list for rebuild; entries also expire after the TTL as a safety net.
+// Cached products are detached, shared instances and must not be modified.
+@Component
+public class ProductCache {
+
+    private final int maxSize;
+    private final long ttlMillis;
+
+    private final Map<Long, Entry> byId;
+    private final Map<String, Long> idByName;
+    private final AtomicLong version = new AtomicLong();
+    // A ReentrantLock rather than a monitor: the loader queries the database, which would pin a virtual thread
+    private final Lock activeLock = new ReentrantLock();
+    private volatile ActiveSnapshot activeSnapshot;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public ProductCache(@Value("${product.cache.max-size:10000}") int maxSize,
+                        @Value("${product.cache.ttl-seconds:300}") long ttlSeconds) {
+        this.maxSize = maxSize;
+        this.ttlMillis = ttlSeconds * 1000;
+        this.byId = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+                boolean evict = size() > ProductCache.this.maxSize;
+                if (evict) evictions.increment();
+                return evict;
+            }
+        };
+        this.idByName = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+                return size() > ProductCache.this.maxSize;
+            }
+        };
+    }
+
+    public Product getById(Long id, Supplier<Product> loader) {
+        Product cached = lookup(id);
+        return cached != null ? hit(cached) : miss(loader);
+    }
+
+    // Active products only, matched case-insensitively
+    public Product getByName(String name, Supplier<Product> loader) {
+        String key = name.toLowerCase(Locale.ROOT);
+        Product cached;
+        synchronized (this) {
+            Long id = idByName.get(key);
+            cached = id != null ? lookup(id) : null;
+        }
+        if (cached != null && cached.isActive() && cached.getName().toLowerCase(Locale.ROOT).equals(key)) return hit(cached);
+        return miss(loader);
+    }
+
+    public List<Product> getActiveProducts(Supplier<List<Product>> loader) {
+        ActiveSnapshot snapshot = activeSnapshot;
+        if (snapshot != null && snapshot.version == version.get()) {
+            hits.increment();
+            return snapshot.products;
+        }
+
+        activeLock.lock();
+        try {
+            long current = version.get();
+            snapshot = activeSnapshot;
+            if (snapshot != null && snapshot.version == current) {
+                hits.increment();
+                return snapshot.products;
+            }
+            misses.increment();
+            List<Product> products = List.copyOf(loader.get());
+            activeSnapshot = new ActiveSnapshot(current, products);
+            return products;
+        } finally {
+            activeLock.unlock();
+        }
+    }
+
+    // Bumped on every invalidation; anything computed from the catalog at an older version is stale
+    public long version() {
+        return version.get();
+    }
+
+    public synchronized void invalidate(Long productId) {
+        version.incrementAndGet();
+        byId.remove(productId);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        invalidate(event.productId());
+    }
+
+    // Sales change stock levels, which the storefront reads from the active list
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSaleRecorded(SaleRecordedEvent event) {
+        invalidate(event.productId());
+    }
+
+    public synchronized CacheStats stats() {
+        return new CacheStats(hits.sum(), misses.sum(), evictions.sum(), byId.size());
+    }
+
+    private synchronized Product lookup(Long id) {
+        Entry entry = byId.get(id);
+        if (entry == null) return null;
+        if (entry.expiresAt > System.currentTimeMillis()) return entry.product;
+        byId.remove(id);
+        return null;
+    }
+
+    private Product hit(Product product) {
+        hits.increment();
+        return product;
+    }
+
+    private Product miss(Supplier<Product> loader) {
+        misses.increment();
+        return store(loader);
+    }
+
+    // Loads outside the lock and only caches the result if no invalidation happened meanwhile
+    private Product store(Supplier<Product> loader) {
+        long before = version.get();
+        Product product = loader.get();
+        synchronized (this) {
+            if (product != null && version.get() == before) {
+                byId.put(product.getId(), new Entry(product, System.currentTimeMillis() + ttlMillis));
+                idByName.put(product.getName().toLowerCase(Locale.ROOT), product.getId());
+            }
+        }
+        return product;
+    }
+
+    private record Entry(Product product, long expiresAt) {}
+
+    private record ActiveSnapshot(long version, List<Product> products) {}
+}
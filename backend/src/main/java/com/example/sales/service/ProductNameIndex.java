@@ -0,0 +1,166 @@
+package com.example.sales.service;
+
+import com.example.sales.entity.Product;
+import com.example.sales.event.ProductChangedEvent;
+import com.example.sales.repository.ProductRepository;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// In-memory trigram index over product names. Substring searches intersect with the smallest posting list
+// and verify the few candidates, instead of running LIKE '%term%' over the products/sales join.
+@Component
+public class ProductNameIndex implements SmartInitializingSingleton {
+
+    private static final int GRAM = 3;
+
+    private final ProductRepository productRepository;
+    private final Map<String, Set<Long>> postings = new HashMap<>();
+    private final Map<Long, Entry> entries = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public ProductNameIndex(ProductRepository productRepository) {
+        this.productRepository = productRepository;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            entries.clear();
+            for (Product product : productRepository.findAll()) {
+                put(product.getId(), product.getName(), product.isActive());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            Entry existing = entries.get(event.productId());
+            switch (event.type()) {
+                case CREATED -> put(event.productId(), event.name(), true);
+                case UPDATED -> put(event.productId(), event.name(), existing == null || existing.active);
+                case DEACTIVATED -> put(event.productId(), event.name(), false);
+                case DELETED -> remove(event.productId());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Ids of products whose name contains the term, case-insensitively
+    public List<Long> search(String term, boolean activeOnly) {
+        return search(term, activeOnly, Integer.MAX_VALUE);
+    }
+
+    // As above, or null once more than maxIds products match; callers then filter by name in the query instead
+    // of binding every id
+    public List<Long> search(String term, boolean activeOnly, int maxIds) {
+        String needle = normalize(term);
+        lock.readLock().lock();
+        try {
+            Candidates candidates = candidates(needle);
+            List<Long> ids = new ArrayList<>();
+            for (Long id : candidates.ids) {
+                Entry entry = entries.get(id);
+                if (entry == null || (activeOnly && !entry.active)) continue;
+                if (candidates.verified || entry.key.contains(needle)) ids.add(id);
+                if (ids.size() > maxIds) return null;
+            }
+            Collections.sort(ids);
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Type-ahead: active product names containing the term, prefix matches first
+    public List<String> suggest(String term, int limit) {
+        String needle = normalize(term);
+        if (needle.isEmpty() || limit <= 0) return List.of();
+
+        List<Entry> matches = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            for (Long id : candidates(needle).ids) {
+                Entry entry = entries.get(id);
+                if (entry != null && entry.active && entry.key.contains(needle)) matches.add(entry);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        return matches.stream()
+                .sorted(Comparator.comparing((Entry e) -> !e.key.startsWith(needle)).thenComparing(e -> e.key))
+                .limit(limit)
+                .map(e -> e.name)
+                .toList();
+    }
+
+    private Candidates candidates(String needle) {
+        if (needle.length() < GRAM) return new Candidates(entries.keySet(), false);
+
+        Set<Long> smallest = null;
+        for (String gram : grams(needle)) {
+            Set<Long> posting = postings.get(gram);
+            if (posting == null) return new Candidates(Set.of(), true);
+            if (smallest == null || posting.size() < smallest.size()) smallest = posting;
+        }
+        // A single-gram needle is fully answered by its posting list
+        return new Candidates(smallest, needle.length() == GRAM);
+    }
+
+    private void put(Long id, String name, boolean active) {
+        if (id == null || name == null) return;
+        remove(id);
+        Entry entry = new Entry(name, normalize(name), active);
+        entries.put(id, entry);
+        for (String gram : grams(entry.key)) {
+            postings.computeIfAbsent(gram, g -> new HashSet<>()).add(id);
+        }
+    }
+
+    private void remove(Long id) {
+        Entry entry = entries.remove(id);
+        if (entry == null) return;
+        for (String gram : grams(entry.key)) {
+            Set<Long> posting = postings.get(gram);
+            if (posting == null) continue;
+            posting.remove(id);
+            if (posting.isEmpty()) postings.remove(gram);
+        }
+    }
+
+    private static Set<String> grams(String key) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM <= key.length(); i++) {
+            grams.add(key.substring(i, i + GRAM));
+        }
+        return grams;
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private record Entry(String name, String key, boolean active) {}
+
+    private record Candidates(Set<Long> ids, boolean verified) {}
+}
@@ -1,30 +1,76 @@
 package com.example.sales.service;
 
 import com.example.sales.entity.Product;
+import com.example.sales.event.ProductChangedEvent;
+import com.example.sales.event.ProductChangedEvent.ChangeType;
 import com.example.sales.repository.ProductRepository;
 import com.example.sales.repository.SaleRepository;
+import com.example.sales.repository.SaleRollupRepository;
 import com.example.sales.exception.ResourceNotFoundException;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import com.example.sales.dto.CacheStats;
+import com.example.sales.dto.CursorPage;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 
 @Service
 public class ProductService {
 
+    // Largest page any listing returns; the sale form loads up to 1000 products at once
+    private static final int MAX_PAGE_SIZE = 1000;
+    // Name searches matching more products than this filter by name in the database instead of binding the ids
+    private static final int MAX_SEARCH_IDS = 1000;
+
+    private static final KeysetCursor PRODUCT_CURSOR = new KeysetCursor(Map.of(
+            "id", Long::valueOf,
+            "name", value -> value,
+            "price", Double::valueOf,
+            "quantity", Integer::valueOf));
+
+    private static final String UPDATE_PRODUCT_SQL = "UPDATE products SET price = ?, quantity = ?, version = version + 1 WHERE id = ?";
+    private static final String INSERT_PRODUCT_SQL = "INSERT INTO products (name, price, quantity, active) VALUES (?, ?, ?, TRUE)";
+
+    private final CountCache countCache = new CountCache(30_000);
+
     private final ProductRepository productRepository;
+    private final ProductNameIndex productNameIndex;
+    private final ProductCache productCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final JdbcTemplate jdbcTemplate;
 
     @Autowired
     private SaleRepository saleRepository;
 
-    public ProductService(ProductRepository productRepository) {
+    @Autowired
+    private SaleRollupRepository saleRollupRepository;
+
+    public ProductService(ProductRepository productRepository, ProductNameIndex productNameIndex,
+                          ProductCache productCache, ApplicationEventPublisher eventPublisher,
+                          JdbcTemplate jdbcTemplate) {
         this.productRepository = productRepository;
+        this.productNameIndex = productNameIndex;
+        this.productCache = productCache;
+        this.eventPublisher = eventPublisher;
+        this.jdbcTemplate = jdbcTemplate;
     }
 
     public List<Product> getAllProducts() {
@@ -32,55 +78,157 @@ public class ProductService {
     }
 
     public List<Product> getAllActiveProducts() {
-        return productRepository.findByActiveTrue();
+        return productCache.getActiveProducts(productRepository::findByActiveTrue);
     }
 
     public Product getProductById(Long id) {
+        return productCache.getById(id, () -> findProduct(id));
+    }
+
+    // Managed instance for write paths; cached products are shared and must not be modified
+    private Product findProduct(Long id) {
         return productRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + id));
     }
 
     public Product createProduct(Product product) {
-        return productRepository.save(product);
+        Product saved = productRepository.save(product);
+        publish(saved, ChangeType.CREATED, null, null);
+        return saved;
     }
 
     public Product updateProduct(Long id, Product productDetails) {
-        Product product = getProductById(id);
+        Product product = findProduct(id);
+        // A client that sends the version it edited gets a conflict instead of overwriting a newer change;
+        // the save itself is checked against the version read here
+        if (productDetails.getVersion() != null && !productDetails.getVersion().equals(product.getVersion()))
+            throw new ObjectOptimisticLockingFailureException(Product.class, id);
+        String previousName = product.getName();
+        Double previousPrice = product.getPrice();
         if (productDetails.getName() != null) product.setName(productDetails.getName());
         if (productDetails.getPrice() != null) product.setPrice(productDetails.getPrice());
         if (productDetails.getQuantity() != null) product.setQuantity(productDetails.getQuantity());
-        return productRepository.save(product);
+        Product saved = productRepository.save(product);
+        publish(saved, ChangeType.UPDATED, previousName, previousPrice);
+        return saved;
     }
 
     @Transactional
     public void deleteProduct(Long productId) {
-        Product product = getProductById(productId);
-        boolean existsInSales = !saleRepository.findByProductId(productId).isEmpty();
+        Product product = findProduct(productId);
+        boolean existsInSales = saleRepository.existsByProductId(productId) || saleRollupRepository.existsByProductId(productId);
         if (existsInSales) {
             
             product.setActive(false);
             productRepository.save(product);
+            publish(product, ChangeType.DEACTIVATED, product.getName(), product.getPrice());
         } else {
             productRepository.delete(product);
+            publish(product, ChangeType.DELETED, product.getName(), product.getPrice());
+        }
+    }
+
+    // Batched upsert keyed by case-insensitive name among active products (last occurrence wins).
+    // Meant for import chunks of up to a few thousand rows; returns {inserted, updated}.
+    @Transactional
+    public int[] upsertProducts(Collection<Product> products) {
+        Map<String, Product> incoming = new LinkedHashMap<>();
+        for (Product product : products) {
+            incoming.put(product.getName().toLowerCase(Locale.ROOT), product);
+        }
+
+        Map<String, Product> existing = new HashMap<>();
+        for (Product product : productRepository.findActiveByLowerNameIn(incoming.keySet())) {
+            existing.putIfAbsent(product.getName().toLowerCase(Locale.ROOT), product);
+        }
+
+        List<Object[]> updates = new ArrayList<>();
+        List<Object[]> inserts = new ArrayList<>();
+        List<String> insertedNames = new ArrayList<>();
+        incoming.forEach((key, product) -> {
+            Product current = existing.get(key);
+            if (current != null) {
+                updates.add(new Object[]{product.getPrice(), product.getQuantity(), current.getId()});
+                eventPublisher.publishEvent(new ProductChangedEvent(current.getId(), ChangeType.UPDATED,
+                        current.getName(), current.getName(), current.getPrice(), product.getPrice()));
+            } else {
+                inserts.add(new Object[]{product.getName(), product.getPrice(), product.getQuantity()});
+                insertedNames.add(key);
+            }
+        });
+
+        if (!updates.isEmpty()) jdbcTemplate.batchUpdate(UPDATE_PRODUCT_SQL, updates);
+        if (!inserts.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_PRODUCT_SQL, inserts);
+            for (Product created : productRepository.findActiveByLowerNameIn(insertedNames)) {
+                if (!existing.containsKey(created.getName().toLowerCase(Locale.ROOT))) publish(created, ChangeType.CREATED, null, null);
+            }
         }
+        return new int[]{inserts.size(), updates.size()};
     }
 
+    private void publish(Product product, ChangeType type, String previousName, Double previousPrice) {
+        eventPublisher.publishEvent(new ProductChangedEvent(
+                product.getId(), type, previousName, product.getName(), previousPrice, product.getPrice()));
+    }
+
+
+    // Atomically takes quantity units from the product's stock, failing instead of overselling
+    @Transactional
+    public void reserveStock(Long productId, int quantity) {
+        if (productRepository.reserveStock(productId, quantity) == 0)
+            throw new IllegalArgumentException("Not enough stock");
+    }
 
     public Product getProductByName(String name) {
-    return productRepository.findByNameIgnoreCaseAndActiveTrue(name)
-            .orElseThrow(() -> new ResourceNotFoundException("Product not found with name: " + name));
+    return productCache.getByName(name, () -> productRepository.findByNameIgnoreCaseAndActiveTrue(name)
+            .orElseThrow(() -> new ResourceNotFoundException("Product not found with name: " + name)));
 }
 
-    public Page<Product> getPaginatedProducts(int page, int size, String sortBy, String direction) {
+    public CacheStats getCacheStats() {
+        return productCache.stats();
+    }
+
+    public Page<Product> getPaginatedProducts(int page, int size, String sortBy, String direction, String search) {
     if (page < 0) page = 0;
     if (size <= 0) size = 10;
+    if (size > MAX_PAGE_SIZE) size = MAX_PAGE_SIZE;
     if (sortBy == null || sortBy.isBlank()) sortBy = "id";
 
     Sort sort = Sort.by(Sort.Direction.fromString(direction == null ? "ASC" : direction.toUpperCase()), sortBy);
     Pageable pageable = PageRequest.of(page, size, sort);
 
-    
-    return productRepository.findByActiveTrue(pageable);
+    if (search == null || search.isBlank()) {
+        return productRepository.findByActiveTrue(pageable);
+    }
+
+    List<Long> ids = productNameIndex.search(search, true, MAX_SEARCH_IDS);
+    if (ids == null) return productRepository.findByNameContainingIgnoreCaseAndActiveTrue(search.trim(), pageable);
+    if (ids.isEmpty()) return Page.empty(pageable);
+    return productRepository.findByIdInAndActiveTrue(ids, pageable);
 }
 
+    public List<String> suggestProductNames(String term, int limit) {
+        return productNameIndex.suggest(term, Math.min(limit, 50));
+    }
+
+    // Keyset paging over active products
+    public CursorPage<Product> getProductsAfter(String cursor, int size, String sortBy, String direction,
+                                                boolean includeTotal) {
+        if (size <= 0) size = 10;
+        if (size > MAX_PAGE_SIZE) size = MAX_PAGE_SIZE;
+        sortBy = PRODUCT_CURSOR.sortKey(sortBy);
+        Sort.Direction dir = Sort.Direction.fromString(direction == null || direction.isBlank() ? "ASC" : direction.toUpperCase());
+
+        KeysetScrollPosition position = PRODUCT_CURSOR.decode(cursor, sortBy, dir);
+        Window<Product> window = productRepository.findByActiveTrue(position, PRODUCT_CURSOR.sort(sortBy, dir), Limit.of(size));
+
+        String nextCursor = window.hasNext() && !window.isEmpty()
+                ? PRODUCT_CURSOR.encode(window.positionAt(window.size() - 1), sortBy, dir)
+                : null;
+        Long total = includeTotal ? countCache.get("active", productRepository::countByActiveTrue) : null;
+
+        return new CursorPage<>(window.getContent(), nextCursor, window.hasNext(), total);
+    }
+
 }
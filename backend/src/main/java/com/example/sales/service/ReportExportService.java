@@ -0,0 +1,73 @@
+package com.example.sales.service;
+
+import com.example.sales.dto.ReportCompression;
+import com.example.sales.dto.ReportFormat;
+import com.example.sales.metrics.Histogram;
+import com.example.sales.metrics.MetricsRegistry;
+import com.example.sales.service.SaleExporter.RowWriter;
+import org.springframework.stereotype.Service;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+// Sales exports in every ReportFormat: a single walk of the sales with SaleRowCursor feeds the format's writer,
+// optionally through a compressor, straight into the response or job file
+@Service
+public class ReportExportService {
+
+    private static final int GZIP_BUFFER = 1 << 16;
+
+    private final SaleRowCursor saleRowCursor;
+    private final Map<ReportFormat, SaleExporter> exporters = new EnumMap<>(ReportFormat.class);
+    private final Map<ReportFormat, Histogram> timers = new EnumMap<>(ReportFormat.class);
+
+    public ReportExportService(SaleRowCursor saleRowCursor, List<SaleExporter> exporters, MetricsRegistry metricsRegistry) {
+        this.saleRowCursor = saleRowCursor;
+        for (SaleExporter exporter : exporters) {
+            this.exporters.put(exporter.format(), exporter);
+            timers.put(exporter.format(), metricsRegistry.timer("report_generation_seconds", "Report generation latency",
+                    "report", exporter.format().getExtension()));
+        }
+    }
+
+    // Sales dated within [from, to]; either bound may be null. The caller owns and closes out.
+    public void export(ReportFormat format, ReportCompression compression, LocalDate from, LocalDate to,
+                       OutputStream out) throws IOException {
+        SaleExporter exporter = exporters.get(format);
+        if (exporter == null) throw new IllegalArgumentException("Unsupported report format: " + format);
+
+        long start = System.nanoTime();
+        OutputStream unclosable = new UnclosableOutputStream(out);
+        try (OutputStream target = compression == ReportCompression.GZIP ? new GZIPOutputStream(unclosable, GZIP_BUFFER) : unclosable;
+             RowWriter writer = exporter.open(target)) {
+            saleRowCursor.forEach(from, to, writer::write);
+            writer.finish();
+        } finally {
+            timers.get(format).recordSince(start);
+        }
+    }
+
+    // Lets the compressor be closed (which writes its trailer and frees the deflater) without closing the caller's stream
+    private static final class UnclosableOutputStream extends FilterOutputStream {
+
+        private UnclosableOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.flush();
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package com.example.sales.service;
+
+import com.example.sales.dto.ReportCompression;
+import com.example.sales.dto.ReportFormat;
+import com.example.sales.dto.ReportJobDto;
+import com.example.sales.dto.ReportJobDto.Status;
+import com.example.sales.dto.ReportJobRequest;
+import com.example.sales.exception.ResourceNotFoundException;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+// Background report generation. Jobs run on a small bounded pool of virtual threads (the work is mostly
+// waiting on JDBC and disk) and write their result to local disk, where it is kept for the retention period.
+// A request identical to one still queued or running joins that job instead of starting another.
+@Service
+public class ReportJobService implements DisposableBean {
+
+    private static final String JOB_FILE_PATTERN = "[0-9a-f\\-]{36}\\.(part|xlsx|csv|ndjson|salescol)(\\.gz)?";
+
+    private final ReportExportService reportExportService;
+    private final Path directory;
+    private final Duration retention;
+    private final ThreadPoolExecutor executor;
+
+    private final Map<String, ReportJob> jobs = new ConcurrentHashMap<>();
+    private final Map<JobKey, ReportJob> inFlight = new ConcurrentHashMap<>();
+
+    public ReportJobService(ReportExportService reportExportService,
+                            @Value("${report.jobs.dir:${java.io.tmpdir}/sales-reports}") String directory,
+                            @Value("${report.jobs.workers:2}") int workers,
+                            @Value("${report.jobs.queue-capacity:20}") int queueCapacity,
+                            @Value("${report.jobs.retention-minutes:60}") long retentionMinutes) throws IOException {
+        this.reportExportService = reportExportService;
+        this.directory = Paths.get(directory);
+        this.retention = Duration.ofMinutes(retentionMinutes);
+        this.executor = new ThreadPoolExecutor(workers, workers, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), Thread.ofVirtual().name("report-job-", 0).factory());
+
+        Files.createDirectories(this.directory);
+        deleteLeftoverFiles();
+    }
+
+    // Throws RejectedExecutionException when the queue is full
+    public ReportJobDto submit(ReportJobRequest request) {
+        if (request.getFormat() == null) throw new IllegalArgumentException("Report format is required");
+        if (request.getFrom() != null && request.getTo() != null && request.getFrom().isAfter(request.getTo()))
+            throw new IllegalArgumentException("from must not be after to");
+
+        purgeExpired();
+        ReportCompression compression = request.getCompression() != null ? request.getCompression() : ReportCompression.NONE;
+        JobKey key = new JobKey(request.getFormat(), compression, request.getFrom(), request.getTo());
+        // Enqueued inside computeIfAbsent so a rejected job is never registered
+        return inFlight.computeIfAbsent(key, k -> {
+            ReportJob job = new ReportJob(UUID.randomUUID().toString(), k);
+            jobs.put(job.id, job);
+            try {
+                executor.execute(() -> run(job));
+            } catch (RejectedExecutionException e) {
+                jobs.remove(job.id);
+                throw e;
+            }
+            return job;
+        }).toDto();
+    }
+
+    public ReportJobDto getJob(String id) {
+        return find(id).toDto();
+    }
+
+    // The finished report file, or null while the job is still queued or running (or has failed)
+    public Path getFile(String id) {
+        ReportJob job = find(id);
+        return job.status == Status.DONE ? job.file : null;
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    private void run(ReportJob job) {
+        job.status = Status.RUNNING;
+        Path part = directory.resolve(job.id + ".part");
+        try {
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(part))) {
+                reportExportService.export(job.key.format, job.key.compression, job.key.from, job.key.to, out);
+            }
+            String extension = job.key.format.getExtension()
+                    + (job.key.compression != ReportCompression.NONE ? "." + job.key.compression.getExtension() : "");
+            Path file = directory.resolve(job.id + "." + extension);
+            Files.move(part, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            job.file = file;
+            job.sizeBytes = Files.size(file);
+            job.completedAt = Instant.now();
+            job.status = Status.DONE;
+        } catch (Exception e) {
+            deleteQuietly(part);
+            job.error = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+            job.completedAt = Instant.now();
+            job.status = Status.FAILED;
+        } finally {
+            inFlight.remove(job.key, job);
+        }
+    }
+
+    private ReportJob find(String id) {
+        ReportJob job = jobs.get(id);
+        if (job == null) throw new ResourceNotFoundException("Report job not found with id: " + id);
+        return job;
+    }
+
+    // Also runs on every submit; this catches files left once submissions stop
+    @Scheduled(fixedDelay = 1, timeUnit = TimeUnit.MINUTES)
+    public void purgeExpired() {
+        Instant cutoff = Instant.now().minus(retention);
+        jobs.values().removeIf(job -> {
+            boolean expired = job.completedAt != null && job.completedAt.isBefore(cutoff);
+            if (expired && job.file != null) deleteQuietly(job.file);
+            return expired;
+        });
+    }
+
+    // Jobs are not persisted, so files from a previous run can no longer be requested
+    private void deleteLeftoverFiles() throws IOException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (Path file : files) {
+                if (file.getFileName().toString().matches(JOB_FILE_PATTERN)) deleteQuietly(file);
+            }
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException ignored) {
+            // Left for the next startup cleanup
+        }
+    }
+
+    private record JobKey(ReportFormat format, ReportCompression compression, LocalDate from, LocalDate to) {}
+
+    private static final class ReportJob {
+        private final String id;
+        private final JobKey key;
+        private final Instant createdAt = Instant.now();
+        private volatile Status status = Status.QUEUED;
+        private volatile Instant completedAt;
+        private volatile Path file;
+        private volatile Long sizeBytes;
+        private volatile String error;
+
+        private ReportJob(String id, JobKey key) {
+            this.id = id;
+            this.key = key;
+        }
+
+        private ReportJobDto toDto() {
+            return new ReportJobDto(id, status, key.format, key.compression, key.from, key.to, createdAt, completedAt,
+                    sizeBytes, error);
+        }
+    }
+}
@@ -0,0 +1,253 @@
+package com.example.sales.service;
+
+import com.example.sales.dto.ReportCompression;
+import com.example.sales.dto.ReportFormat;
+import com.example.sales.dto.ReportSnapshotDto;
+import com.example.sales.dto.ReportSnapshotDto.Period;
+import com.example.sales.event.ProductChangedEvent;
+import com.example.sales.event.SaleRecordedEvent;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Pre-generated reports of closed periods (a past day or month) kept as files, so repeated downloads of the same
+// period are served from disk instead of rebuilt. After midnight the scheduler generates yesterday's report and,
+// on the first of the month, last month's; older snapshots are kept for days-kept days and months-kept months.
+//
+// A snapshot only goes stale when a sale is back-dated into its period, or when a product is renamed or repriced
+// (reports show current names and value sales at current prices). Such a change deletes the affected snapshots
+// and queues them for regeneration. Each key carries a version bumped by every invalidation, so a generation that
+// raced with a change is discarded and run again rather than installed.
+//
+// The version is part of the file name and replaced files are only deleted by the next scheduled run, so a download
+// that already resolved a snapshot (the container may open it after the handler returns) never sees it vanish or
+// change underneath it.
+@Service
+public class ReportSnapshotService implements SmartInitializingSingleton, DisposableBean {
+
+    private static final String SNAPSHOT_FILE_PATTERN = "(day|month)-[0-9-]+-v[0-9]+\\.[a-z]+(\\.part)?";
+
+    private final ReportExportService reportExportService;
+    private final Path directory;
+    private final List<ReportFormat> formats;
+    private final int daysKept;
+    private final int monthsKept;
+
+    private final Map<SnapshotKey, Snapshot> snapshots = new ConcurrentHashMap<>();
+    private final Map<SnapshotKey, Long> versions = new ConcurrentHashMap<>();
+    private final Set<SnapshotKey> queued = ConcurrentHashMap.newKeySet();
+    // The key the generator is exporting, if any; a change to it queues another run
+    private volatile SnapshotKey generating;
+    // Files of replaced or expired snapshots, guarded by this
+    private final List<Path> retired = new ArrayList<>();
+    // One snapshot at a time, so pre-generation never competes with interactive reports for more than one connection
+    private final ExecutorService generator = Executors.newSingleThreadExecutor(Thread.ofVirtual().name("report-snapshot-", 0).factory());
+
+    public ReportSnapshotService(ReportExportService reportExportService,
+                                 @Value("${report.snapshots.dir:${java.io.tmpdir}/sales-snapshots}") String directory,
+                                 @Value("${report.snapshots.formats:xlsx}") String[] formats,
+                                 @Value("${report.snapshots.days-kept:31}") int daysKept,
+                                 @Value("${report.snapshots.months-kept:12}") int monthsKept) throws IOException {
+        this.reportExportService = reportExportService;
+        this.directory = Paths.get(directory);
+        this.formats = Arrays.stream(formats).map(String::trim).filter(f -> !f.isEmpty()).map(ReportFormat::parse).distinct().toList();
+        this.daysKept = daysKept;
+        this.monthsKept = monthsKept;
+
+        Files.createDirectories(this.directory);
+        deleteLeftoverFiles();
+    }
+
+    // Files from a previous run aren't trusted (the in-memory database is reseeded on restart), so the latest
+    // closed day and month are generated again once the application is up
+    @Override
+    public void afterSingletonsInstantiated() {
+        generateClosedPeriods();
+    }
+
+    @Scheduled(cron = "${report.snapshots.cron:0 5 0 * * *}")
+    public void generateScheduled() {
+        generateClosedPeriods();
+    }
+
+    // The snapshot file for exactly this period and format, or null when there is none (yet)
+    public Path find(ReportFormat format, ReportCompression compression, LocalDate from, LocalDate to) {
+        if (compression != ReportCompression.NONE || from == null || to == null) return null;
+        SnapshotKey key;
+        if (from.equals(to)) {
+            key = new SnapshotKey(Period.DAY, from, format);
+        } else if (from.getDayOfMonth() == 1 && to.equals(YearMonth.from(from).atEndOfMonth())) {
+            key = new SnapshotKey(Period.MONTH, from, format);
+        } else {
+            return null;
+        }
+        Snapshot snapshot = snapshots.get(key);
+        return snapshot != null ? snapshot.file : null;
+    }
+
+    public List<ReportSnapshotDto> getSnapshots() {
+        return snapshots.entrySet().stream()
+                .map(e -> new ReportSnapshotDto(e.getKey().period, e.getKey().start, e.getKey().end(), e.getKey().format,
+                        e.getValue().sizeBytes, e.getValue().generatedAt))
+                .sorted(Comparator.comparing(ReportSnapshotDto::getFrom).reversed()
+                        .thenComparing(ReportSnapshotDto::getPeriod)
+                        .thenComparing(ReportSnapshotDto::getFormat))
+                .toList();
+    }
+
+    // Sales dated today or later only touch open periods
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSaleRecorded(SaleRecordedEvent event) {
+        if (snapshots.isEmpty() && queued.isEmpty() && generating == null) return;
+        if (!event.date().isBefore(LocalDate.now())) return;
+        for (ReportFormat format : formats) {
+            invalidate(new SnapshotKey(Period.DAY, event.date(), format));
+            invalidate(new SnapshotKey(Period.MONTH, event.date().withDayOfMonth(1), format));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.type() != ProductChangedEvent.ChangeType.UPDATED) return;
+        if (!event.nameChanged() && !event.priceChanged()) return;
+        Set<SnapshotKey> affected = ConcurrentHashMap.newKeySet();
+        affected.addAll(snapshots.keySet());
+        affected.addAll(queued);
+        SnapshotKey current = generating;
+        if (current != null) affected.add(current);
+        affected.forEach(this::invalidate);
+    }
+
+    @Override
+    public void destroy() {
+        generator.shutdownNow();
+    }
+
+    private void generateClosedPeriods() {
+        LocalDate today = LocalDate.now();
+        for (ReportFormat format : formats) {
+            if (daysKept > 0) queueMissing(new SnapshotKey(Period.DAY, today.minusDays(1), format));
+            if (monthsKept > 0) queueMissing(new SnapshotKey(Period.MONTH, today.withDayOfMonth(1).minusMonths(1), format));
+        }
+        prune(today);
+    }
+
+    // Only periods that have (or are about to get) a snapshot are regenerated. A run already exporting the key
+    // discards its file on the version check, and the run queued here replaces it.
+    private void invalidate(SnapshotKey key) {
+        boolean regenerate;
+        synchronized (this) {
+            versions.merge(key, 1L, Long::sum);
+            Snapshot snapshot = snapshots.remove(key);
+            if (snapshot != null) retired.add(snapshot.file);
+            regenerate = snapshot != null || queued.contains(key) || key.equals(generating);
+        }
+        if (regenerate) queue(key);
+    }
+
+    // Last month stays the same period all month; it is only generated again after an invalidation
+    private void queueMissing(SnapshotKey key) {
+        if (!snapshots.containsKey(key)) queue(key);
+    }
+
+    private void queue(SnapshotKey key) {
+        if (queued.add(key)) generator.execute(() -> generate(key));
+    }
+
+    private void generate(SnapshotKey key) {
+        // Changes from here on queue another run
+        generating = key;
+        queued.remove(key);
+        long version = versions.getOrDefault(key, 0L);
+        Path file = directory.resolve(key.fileName(version));
+        Path part = directory.resolve(file.getFileName() + ".part");
+        try {
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(part))) {
+                reportExportService.export(key.format, ReportCompression.NONE, key.start, key.end(), out);
+            }
+            synchronized (this) {
+                if (versions.getOrDefault(key, 0L) == version) {
+                    Files.move(part, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                    snapshots.put(key, new Snapshot(file, Files.size(file), Instant.now()));
+                    return;
+                }
+            }
+            deleteQuietly(part);
+        } catch (Exception e) {
+            // Without a snapshot the period is exported on demand; the next scheduled run tries again
+            deleteQuietly(part);
+        } finally {
+            generating = null;
+        }
+    }
+
+    private void prune(LocalDate today) {
+        LocalDate oldestDay = today.minusDays(daysKept);
+        LocalDate oldestMonth = today.withDayOfMonth(1).minusMonths(monthsKept);
+        synchronized (this) {
+            retired.forEach(ReportSnapshotService::deleteQuietly);
+            retired.clear();
+            snapshots.entrySet().removeIf(e -> {
+                SnapshotKey key = e.getKey();
+                boolean expired = key.start.isBefore(key.period == Period.DAY ? oldestDay : oldestMonth);
+                if (expired) retired.add(e.getValue().file);
+                return expired;
+            });
+            versions.keySet().removeIf(key -> key.start.isBefore(key.period == Period.DAY ? oldestDay : oldestMonth));
+        }
+    }
+
+    private void deleteLeftoverFiles() throws IOException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (Path file : files) {
+                if (file.getFileName().toString().matches(SNAPSHOT_FILE_PATTERN)) deleteQuietly(file);
+            }
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException ignored) {
+            // Left for the next startup cleanup
+        }
+    }
+
+    private record SnapshotKey(Period period, LocalDate start, ReportFormat format) {
+
+        private LocalDate end() {
+            return period == Period.DAY ? start : YearMonth.from(start).atEndOfMonth();
+        }
+
+        private String fileName(long version) {
+            String label = period == Period.DAY ? start.toString() : YearMonth.from(start).toString();
+            return period.name().toLowerCase() + "-" + label + "-v" + version + "." + format.getExtension();
+        }
+    }
+
+    private record Snapshot(Path file, long sizeBytes, Instant generatedAt) {}
+}
@@ -0,0 +1,263 @@
+package com.example.sales.service;
+
+import com.example.sales.dto.BatchResult;
+import com.example.sales.dto.SaleBatchLine;
+import com.example.sales.entity.Product;
+import com.example.sales.event.SaleRecordedEvent;
+import com.example.sales.repository.ProductRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.BatchUpdateException;
+import java.sql.Date;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+// Bulk sale ingestion: lines are merged per product and day while reading, then written with a handful of
+// queries and JDBC batches in a single transaction instead of four round trips per sale.
+@Service
+public class SaleBatchService {
+
+    private static final int IN_CHUNK = 1000;
+    private static final int JDBC_BATCH = 500;
+
+    private static final String RESERVE_STOCK_SQL =
+            "UPDATE products SET quantity = quantity - ?, version = version + 1 WHERE id = ? AND active = TRUE AND quantity >= ?";
+    private static final String INCREMENT_SALE_SQL =
+            "UPDATE sales SET quantity = quantity + ?, total_amount = (quantity + ?) * ?, version = version + 1 " +
+            "WHERE product_id = ? AND date = ?";
+    private static final String INSERT_SALE_SQL =
+            "INSERT INTO sales (product_id, quantity, total_amount, date) VALUES (?, ?, ?, ?)";
+
+    private final ProductRepository productRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
+
+    public SaleBatchService(ProductRepository productRepository, JdbcTemplate jdbcTemplate,
+                            PlatformTransactionManager transactionManager, ApplicationEventPublisher eventPublisher,
+                            ObjectMapper objectMapper) {
+        this.productRepository = productRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.objectMapper = objectMapper;
+    }
+
+    // Accepts either a JSON array of lines or newline-delimited JSON objects
+    public BatchResult ingest(InputStream body) throws IOException {
+        SaleBatch batch = new SaleBatch();
+        try (MappingIterator<SaleBatchLine> lines = objectMapper.readerFor(SaleBatchLine.class).readValues(body)) {
+            while (lines.hasNextValue()) {
+                batch.add(lines.nextValue());
+            }
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Malformed sale at entry " + (batch.result.getReceived() + 1)
+                    + ": " + e.getOriginalMessage());
+        }
+        return write(batch);
+    }
+
+    public BatchResult write(SaleBatch batch) {
+        return transactionTemplate.execute(status -> {
+            BatchResult result = batch.result;
+            Map<Product, ProductLines> resolved = resolveProducts(batch);
+            if (!resolved.isEmpty()) reserveStock(resolved, result);
+            if (!resolved.isEmpty()) mergeSales(resolved, result);
+
+            for (Map.Entry<Product, ProductLines> entry : resolved.entrySet()) {
+                Product product = entry.getKey();
+                entry.getValue().quantities.forEach((date, quantity) -> eventPublisher.publishEvent(
+                        new SaleRecordedEvent(product.getId(), date, quantity.intValue(), quantity * product.getPrice())));
+            }
+
+            result.setAccepted(result.getReceived() - result.getRejected());
+            return result;
+        });
+    }
+
+    private Map<Product, ProductLines> resolveProducts(SaleBatch batch) {
+        Map<String, Product> byName = new HashMap<>();
+        List<String> names = new ArrayList<>(batch.byProduct.keySet());
+        for (int i = 0; i < names.size(); i += IN_CHUNK) {
+            for (Product product : productRepository.findActiveByLowerNameIn(names.subList(i, Math.min(i + IN_CHUNK, names.size())))) {
+                byName.putIfAbsent(product.getName().toLowerCase(Locale.ROOT), product);
+            }
+        }
+
+        Map<Product, ProductLines> resolved = new LinkedHashMap<>();
+        batch.byProduct.forEach((name, lines) -> {
+            Product product = byName.get(name);
+            if (product == null) {
+                batch.result.setRejected(batch.result.getRejected() + lines.lines);
+                batch.result.addError(lines.firstLine, "Product not found with name: " + lines.displayName);
+            } else {
+                resolved.put(product, lines);
+            }
+        });
+        return resolved;
+    }
+
+    // One conditional decrement per product for the whole batch; products without enough stock are rejected entirely
+    private void reserveStock(Map<Product, ProductLines> resolved, BatchResult result) {
+        List<Product> products = new ArrayList<>(resolved.keySet());
+        List<Object[]> args = new ArrayList<>(products.size());
+        for (Product product : products) {
+            long quantity = resolved.get(product).totalQuantity();
+            args.add(new Object[]{quantity, product.getId(), quantity});
+        }
+
+        int[] counts = jdbcTemplate.batchUpdate(RESERVE_STOCK_SQL, args);
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] != 0) continue;
+            ProductLines lines = resolved.remove(products.get(i));
+            result.setRejected(result.getRejected() + lines.lines);
+            result.addError(null, "Not enough stock for product: " + products.get(i).getName());
+        }
+    }
+
+    // Same path as SaleService.createSale, batched: every key is first merged into its row with an increment by
+    // (product_id, date), which waits on and never loses to a concurrent compaction; keys that matched no row are
+    // inserted, and an insert that loses the unique key to a concurrent sale falls back to the increment.
+    private void mergeSales(Map<Product, ProductLines> resolved, BatchResult result) {
+        List<Object[]> increments = new ArrayList<>();
+        List<Object[]> inserts = new ArrayList<>();
+        resolved.forEach((product, lines) -> lines.quantities.forEach((date, quantity) -> {
+            increments.add(new Object[]{quantity, quantity, product.getPrice(), product.getId(), Date.valueOf(date)});
+            inserts.add(new Object[]{product.getId(), quantity, quantity * product.getPrice(), Date.valueOf(date)});
+        }));
+
+        List<Object[]> missingIncrements = new ArrayList<>();
+        List<Object[]> missingInserts = new ArrayList<>();
+        int updated = 0;
+        for (int i = 0; i < increments.size(); i += JDBC_BATCH) {
+            int[] counts = jdbcTemplate.batchUpdate(INCREMENT_SALE_SQL, increments.subList(i, Math.min(i + JDBC_BATCH, increments.size())));
+            for (int j = 0; j < counts.length; j++) {
+                if (counts[j] != 0) {
+                    updated++;
+                } else {
+                    missingIncrements.add(increments.get(i + j));
+                    missingInserts.add(inserts.get(i + j));
+                }
+            }
+        }
+
+        int inserted = 0;
+        for (int i = 0; i < missingInserts.size(); i += JDBC_BATCH) {
+            int chunkEnd = Math.min(i + JDBC_BATCH, missingInserts.size());
+            try {
+                jdbcTemplate.batchUpdate(INSERT_SALE_SQL, missingInserts.subList(i, chunkEnd));
+                inserted += chunkEnd - i;
+            } catch (DuplicateKeyException e) {
+                // Drivers either report every statement or stop at the failure; whatever is not known to have
+                // been inserted is merged one key at a time
+                int[] counts = e.getCause() instanceof BatchUpdateException batch ? batch.getUpdateCounts() : new int[0];
+                for (int j = i; j < chunkEnd; j++) {
+                    int k = j - i;
+                    if (k < counts.length && counts[k] != Statement.EXECUTE_FAILED) {
+                        inserted++;
+                    } else if (mergeOne(missingIncrements.get(j), missingInserts.get(j))) {
+                        inserted++;
+                    } else {
+                        updated++;
+                    }
+                }
+            }
+        }
+        result.setUpdated(updated);
+        result.setInserted(inserted);
+    }
+
+    // Returns whether the key was inserted rather than merged into an existing row
+    private boolean mergeOne(Object[] increment, Object[] insert) {
+        if (jdbcTemplate.update(INCREMENT_SALE_SQL, increment) != 0) return false;
+        try {
+            jdbcTemplate.update(INSERT_SALE_SQL, insert);
+            return true;
+        } catch (DuplicateKeyException e) {
+            jdbcTemplate.update(INCREMENT_SALE_SQL, increment);
+            return false;
+        }
+    }
+
+    // Accumulates validated lines, merged per lower-cased product name and day; memory grows with distinct keys, not lines
+    public static class SaleBatch {
+
+        private final BatchResult result = new BatchResult();
+        private final Map<String, ProductLines> byProduct = new HashMap<>();
+
+        public void add(SaleBatchLine line) {
+            add(result.getReceived() + 1, line);
+        }
+
+        public void add(long lineNumber, SaleBatchLine line) {
+            result.setReceived(result.getReceived() + 1);
+
+            String error = validate(line);
+            if (error != null) {
+                fail(lineNumber, error);
+                return;
+            }
+
+            String name = line.getProductName().trim();
+            ProductLines lines = byProduct.computeIfAbsent(name.toLowerCase(Locale.ROOT), key -> new ProductLines(name, lineNumber));
+            lines.lines++;
+            lines.quantities.merge(line.getDate(), line.getQuantity().longValue(), Long::sum);
+        }
+
+        // Counts a line that failed before it could be turned into a SaleBatchLine, e.g. an unparseable CSV record
+        public void reject(long lineNumber, String message) {
+            result.setReceived(result.getReceived() + 1);
+            fail(lineNumber, message);
+        }
+
+        private void fail(long lineNumber, String message) {
+            result.setRejected(result.getRejected() + 1);
+            result.addError(lineNumber, message);
+        }
+
+        public static String validate(SaleBatchLine line) {
+            if (line == null || line.getProductName() == null || line.getProductName().isBlank())
+                return "Product name is required";
+            if (line.getQuantity() == null || line.getQuantity() <= 0)
+                return "Quantity must be > 0";
+            if (line.getDate() == null)
+                return "Sale date is required";
+            return null;
+        }
+    }
+
+    private static final class ProductLines {
+        private final String displayName;
+        private final long firstLine;
+        private long lines;
+        private final Map<LocalDate, Long> quantities = new HashMap<>();
+
+        private ProductLines(String displayName, long firstLine) {
+            this.displayName = displayName;
+            this.firstLine = firstLine;
+        }
+
+        private long totalQuantity() {
+            long total = 0;
+            for (long quantity : quantities.values()) total += quantity;
+            return total;
+        }
+    }
+}
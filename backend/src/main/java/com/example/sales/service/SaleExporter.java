@@ -0,0 +1,29 @@
+package com.example.sales.service;
+
+import com.example.sales.dto.ReportFormat;
+import com.example.sales.dto.SaleExportRow;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+// One report format. ReportExportService walks the sales once with SaleRowCursor and feeds every row to the
+// writer, so a writer only keeps what its format needs between rows (a row group, a workbook window).
+public interface SaleExporter {
+
+    ReportFormat format();
+
+    RowWriter open(OutputStream out) throws IOException;
+
+    interface RowWriter extends AutoCloseable {
+
+        void write(SaleExportRow row) throws IOException;
+
+        // Writes whatever follows the rows; the stream itself stays open
+        void finish() throws IOException;
+
+        // Releases the writer's resources, also after a failed export
+        @Override
+        default void close() throws IOException {
+        }
+    }
+}
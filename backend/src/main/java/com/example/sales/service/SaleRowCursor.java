@@ -0,0 +1,143 @@
+package com.example.sales.service;
+
+import com.example.sales.dto.IdRange;
+import com.example.sales.dto.SaleExportRow;
+import com.example.sales.repository.SaleRepository;
+import com.example.sales.repository.SaleRollupRepository;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// Walks sales in id order, one bounded chunk at a time, so callers never hold more than a few chunks in memory.
+// Compacted months come first, then the sales table. Chunks are id ranges fetched ahead of the handler on virtual
+// threads, up to fetch-ahead at a time, so the queries overlap with each other and with the handler's work
+// (writing rows) instead of the walk waiting on one query after another.
+//
+// Where the matching ids are dense, chunks are fixed spans of chunk-size ids. Where they are sparse (a date range
+// whose sales were back-dated or compacted around), fixed spans would mostly come back empty, so each chunk ends
+// at the chunk-size-th matching id instead, found by a keyset query over the ids alone.
+@Component
+public class SaleRowCursor implements DisposableBean {
+
+    // Ids spanning more than this many times the matching rows count as sparse
+    private static final int MAX_SPAN_PER_ROW = 2;
+
+    private final SaleRepository saleRepository;
+    private final SaleRollupRepository saleRollupRepository;
+    private final SalesPartitions salesPartitions;
+    private final int chunkSize;
+    private final int fetchAhead;
+    private final ExecutorService fetcher = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("sale-rows-", 0).factory());
+
+    public SaleRowCursor(SaleRepository saleRepository, SaleRollupRepository saleRollupRepository,
+                         SalesPartitions salesPartitions,
+                         @Value("${report.export.chunk-size:1000}") int chunkSize,
+                         @Value("${report.export.fetch-ahead:4}") int fetchAhead) {
+        if (fetchAhead < 1) throw new IllegalArgumentException("report.export.fetch-ahead must be at least 1");
+        this.saleRepository = saleRepository;
+        this.saleRollupRepository = saleRollupRepository;
+        this.salesPartitions = salesPartitions;
+        this.chunkSize = chunkSize;
+        this.fetchAhead = fetchAhead;
+    }
+
+    public void forEach(RowHandler handler) throws IOException {
+        forEach(null, null, handler);
+    }
+
+    // Only sales dated within [from, to]; either bound may be null. Sales recorded after the walk reached
+    // their partition are not visited.
+    public void forEach(LocalDate from, LocalDate to, RowHandler handler) throws IOException {
+        LocalDate start = from != null ? from : LocalDate.of(1, 1, 1);
+        LocalDate end = to != null ? to : LocalDate.of(9999, 12, 31);
+        if (salesPartitions.includesCold(from)) {
+            walk(saleRollupRepository.findIdRangeBetween(start, end),
+                    afterId -> first(saleRollupRepository.findIdsAfterBetween(afterId, start, end, chunkEnd())),
+                    (afterId, upToId) -> saleRollupRepository.findExportRowsBetween(afterId, upToId, start, end), handler);
+        }
+        if (from == null && to == null) {
+            walk(saleRepository.findIdRange(), afterId -> first(saleRepository.findIdsAfter(afterId, chunkEnd())),
+                    saleRepository::findExportRows, handler);
+        } else {
+            walk(saleRepository.findIdRangeBetween(start, end),
+                    afterId -> first(saleRepository.findIdsAfterBetween(afterId, start, end, chunkEnd())),
+                    (afterId, upToId) -> saleRepository.findExportRowsBetween(afterId, upToId, start, end), handler);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        fetcher.shutdownNow();
+    }
+
+    private void walk(IdRange range, ChunkBoundary boundary, ChunkFetch fetch, RowHandler handler) throws IOException {
+        if (range == null || range.getMinId() == null) return;
+        long next = range.getMinId() - 1;
+        long maxId = range.getMaxId();
+        boolean sparse = maxId - next > range.getRowCount() * MAX_SPAN_PER_ROW;
+
+        ArrayDeque<Future<List<SaleExportRow>>> ahead = new ArrayDeque<>(fetchAhead);
+        try {
+            while (next < maxId || !ahead.isEmpty()) {
+                while (ahead.size() < fetchAhead && next < maxId) {
+                    long afterId = next;
+                    long upToId = Math.min(sparse ? boundary.after(next) : next + chunkSize, maxId);
+                    ahead.add(fetcher.submit(() -> fetch.apply(afterId, upToId)));
+                    next = upToId;
+                }
+                for (SaleExportRow row : await(ahead.poll())) {
+                    handler.accept(row);
+                }
+            }
+        } finally {
+            ahead.forEach(chunk -> chunk.cancel(true));
+        }
+    }
+
+    // The id closing a chunk is the chunk-size-th one after the previous chunk
+    private PageRequest chunkEnd() {
+        return PageRequest.of(chunkSize - 1, 1);
+    }
+
+    // Fewer than chunk-size ids left: the last chunk runs to the end of the range
+    private static long first(List<Long> ids) {
+        return ids.isEmpty() ? Long.MAX_VALUE : ids.get(0);
+    }
+
+    private static List<SaleExportRow> await(Future<List<SaleExportRow>> chunk) throws IOException {
+        try {
+            return chunk.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while fetching sales", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            throw new IOException("Failed to fetch sales", e.getCause());
+        }
+    }
+
+    @FunctionalInterface
+    private interface ChunkBoundary {
+        long after(long afterId);
+    }
+
+    @FunctionalInterface
+    private interface ChunkFetch {
+        List<SaleExportRow> apply(long afterId, long upToId);
+    }
+
+    @FunctionalInterface
+    public interface RowHandler {
+        void accept(SaleExportRow row) throws IOException;
+    }
+}
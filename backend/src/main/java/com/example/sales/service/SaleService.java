@@ -2,36 +2,103 @@ package com.example.sales.service;
 
 import com.example.sales.entity.Product;
 import com.example.sales.entity.Sale;
+import com.example.sales.entity.SaleRecord;
+import com.example.sales.entity.SaleRollup;
+import com.example.sales.event.SaleRecordedEvent;
 import com.example.sales.exception.ResourceNotFoundException;
+import com.example.sales.metrics.Histogram;
+import com.example.sales.metrics.MetricsRegistry;
+import com.example.sales.repository.SaleRecordRepository;
 import com.example.sales.repository.SaleRepository;
+import com.example.sales.repository.SaleRollupRepository;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import java.sql.Date;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Locale;
+import com.example.sales.dto.CursorPage;
+import com.example.sales.dto.SaleListItem;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import java.util.Map;
 
 @Service
 public class SaleService {
 
+    // Largest page a listing returns, whatever size is requested
+    private static final int MAX_PAGE_SIZE = 1000;
+    // Name searches matching more products than this filter the join by name instead of binding the ids
+    private static final int MAX_SEARCH_IDS = 1000;
+
+    private static final KeysetCursor SALE_CURSOR = new KeysetCursor(Map.of(
+            "id", Long::valueOf,
+            "date", LocalDate::parse,
+            "quantity", Integer::valueOf,
+            "totalAmount", Double::valueOf));
+
+    // Same-day sales of a product are merged into its row with a single conditional increment
+    private static final String INCREMENT_SALE_SQL =
+            "UPDATE sales SET quantity = quantity + ?, total_amount = (quantity + ?) * ?, version = version + 1 " +
+            "WHERE product_id = ? AND date = ?";
+    private static final String INSERT_SALE_SQL =
+            "INSERT INTO sales (product_id, quantity, total_amount, date) VALUES (?, ?, ?, ?)";
+
+    private final CountCache countCache = new CountCache(30_000);
+
     private final SaleRepository saleRepository;
+    private final SaleRecordRepository saleRecordRepository;
+    private final SaleRollupRepository saleRollupRepository;
     private final ProductService productService;
-
-    public SaleService(SaleRepository saleRepository, ProductService productService) {
+    private final ProductNameIndex productNameIndex;
+    private final ApplicationEventPublisher eventPublisher;
+    private final JdbcTemplate jdbcTemplate;
+
+    private final Histogram lookupTimer;
+    private final Histogram stockTimer;
+    private final Histogram mergeTimer;
+
+    public SaleService(SaleRepository saleRepository, SaleRecordRepository saleRecordRepository,
+                       SaleRollupRepository saleRollupRepository, ProductService productService,
+                       ProductNameIndex productNameIndex, ApplicationEventPublisher eventPublisher,
+                       JdbcTemplate jdbcTemplate, MetricsRegistry metricsRegistry) {
         this.saleRepository = saleRepository;
+        this.saleRecordRepository = saleRecordRepository;
+        this.saleRollupRepository = saleRollupRepository;
         this.productService = productService;
+        this.productNameIndex = productNameIndex;
+        this.eventPublisher = eventPublisher;
+        this.jdbcTemplate = jdbcTemplate;
+        this.lookupTimer = metricsRegistry.timer("sale_create_phase_seconds", "createSale latency by phase", "phase", "lookup");
+        this.stockTimer = metricsRegistry.timer("sale_create_phase_seconds", "createSale latency by phase", "phase", "stock");
+        this.mergeTimer = metricsRegistry.timer("sale_create_phase_seconds", "createSale latency by phase", "phase", "merge");
     }
 
-    public List<Sale> getAllSales() {
-        return saleRepository.findAll();
+    // Listings and lookups cover compacted months too (see SalesPartitions)
+    public List<SaleListItem> getAllSales() {
+        return saleRecordRepository.findAllListItems();
     }
 
     public Sale getSaleById(Long id) {
         return saleRepository.findById(id)
+                .or(() -> saleRollupRepository.findById(id).map(SaleService::toSale))
                 .orElseThrow(() -> new ResourceNotFoundException("Sale not found with id: " + id));
     }
+
+    // Detached copy of a compacted row, shaped like the sale it replaced
+    private static Sale toSale(SaleRollup rollup) {
+        Sale sale = new Sale(rollup.getProduct(), rollup.getQuantity(), rollup.getTotalAmount(), rollup.getDate());
+        sale.setId(rollup.getId());
+        return sale;
+    }
 @Transactional
 public Sale createSale(Sale sale) {
 
@@ -48,35 +115,41 @@ public Sale createSale(Sale sale) {
     sale.setDate(normalizedDate);
 
     // Fetch product by name (only active products)
+    long phaseStart = System.nanoTime();
     Product product = productService.getProductByName(sale.getProduct().getName());
+    phaseStart = lookupTimer.recordSince(phaseStart);
 
-    if (product.getQuantity() < sale.getQuantity())
-        throw new IllegalArgumentException("Not enough stock");
-
-    // Reduce stock
-    product.setQuantity(product.getQuantity() - sale.getQuantity());
-    productService.updateProduct(product.getId(), product);
+    // Reduce stock with a conditional update; concurrent checkouts can't both pass the check
+    productService.reserveStock(product.getId(), sale.getQuantity());
+    phaseStart = stockTimer.recordSince(phaseStart);
 
     // Set sale amount
-    double totalAmount = sale.getQuantity() * product.getPrice();
-    sale.setTotalAmount(totalAmount);
-    sale.setProduct(product); // attach managed entity
-
-    // Check for existing sale by product name and date
-    Sale existingSale = saleRepository.findByProductNameAndDate(product.getName(), normalizedDate);
-    if (existingSale != null) {
-        existingSale.setQuantity(existingSale.getQuantity() + sale.getQuantity());
-        existingSale.setTotalAmount(existingSale.getQuantity() * product.getPrice());
-        return saleRepository.save(existingSale);
+    int quantity = sale.getQuantity();
+    double totalAmount = quantity * product.getPrice();
+
+    eventPublisher.publishEvent(new SaleRecordedEvent(product.getId(), normalizedDate, quantity, totalAmount));
+
+    // Merge into the product's row for the day without reading it first. Only one concurrent insert can win the
+    // unique (product_id, date) key; the others' increment then finds its row, so no update is lost or duplicated.
+    // Only hot rows are merged: a sale back-dated into a compacted month starts a new row for the next compaction.
+    Object[] increment = {quantity, quantity, product.getPrice(), product.getId(), Date.valueOf(normalizedDate)};
+    if (jdbcTemplate.update(INCREMENT_SALE_SQL, increment) == 0) {
+        try {
+            jdbcTemplate.update(INSERT_SALE_SQL, product.getId(), quantity, totalAmount, Date.valueOf(normalizedDate));
+        } catch (DuplicateKeyException e) {
+            jdbcTemplate.update(INCREMENT_SALE_SQL, increment);
+        }
     }
-
-    return saleRepository.save(sale);
+    Sale saved = saleRepository.findByProductIdAndDate(product.getId(), normalizedDate).orElseThrow();
+    mergeTimer.recordSince(phaseStart);
+    return saved;
 }
 
 
-    public Page<Sale> getPaginatedSales(int page, int size, String sortBy, String search, String direction) {
+    public Page<SaleListItem> getPaginatedSales(int page, int size, String sortBy, String search, String direction) {
         if (page < 0) page = 0;
         if (size <= 0) size = 10;
+        if (size > MAX_PAGE_SIZE) size = MAX_PAGE_SIZE;
         if (sortBy == null || sortBy.isBlank()) sortBy = "id";
         if (direction == null || direction.isBlank()) direction = "asc";
 
@@ -84,9 +157,58 @@ public Sale createSale(Sale sale) {
         Pageable pageable = PageRequest.of(page, size, sort);
 
         if (search == null || search.isBlank()) {
-            return saleRepository.findAll(pageable);
-        } else {
-            return saleRepository.findByProductNameContaining(search, pageable);
+            return saleRecordRepository.findListItems(pageable);
+        }
+
+        List<Long> productIds = productNameIndex.search(search, false, MAX_SEARCH_IDS);
+        if (productIds == null) return saleRecordRepository.findListItemsByProductNameLike(likePattern(search), pageable);
+        if (productIds.isEmpty()) return Page.empty(pageable);
+        return saleRecordRepository.findListItemsByProductIdIn(productIds, pageable);
+    }
+
+    // Keyset paging: each page seeks past the previous page's last (sort value, id), so deep pages cost the same as the first
+    public CursorPage<SaleListItem> getSalesAfter(String cursor, int size, String sortBy, String direction,
+                                          String search, boolean includeTotal) {
+        if (size <= 0) size = 10;
+        if (size > MAX_PAGE_SIZE) size = MAX_PAGE_SIZE;
+        sortBy = SALE_CURSOR.sortKey(sortBy);
+        Sort.Direction dir = Sort.Direction.fromString(direction == null || direction.isBlank() ? "ASC" : direction.toUpperCase());
+
+        Sort sort = SALE_CURSOR.sort(sortBy, dir);
+        KeysetScrollPosition position = SALE_CURSOR.decode(cursor, sortBy, dir);
+        boolean searching = search != null && !search.isBlank();
+        List<Long> productIds = searching ? productNameIndex.search(search, false, MAX_SEARCH_IDS) : List.of();
+        if (searching && productIds != null && productIds.isEmpty()) {
+            return new CursorPage<>(List.of(), null, false, includeTotal ? 0L : null);
         }
+        boolean byName = productIds == null;
+
+        Window<SaleRecord> window = !searching
+                ? saleRecordRepository.findAllBy(position, sort, Limit.of(size))
+                : byName
+                ? saleRecordRepository.findByProductNameContainingIgnoreCase(search.trim(), position, sort, Limit.of(size))
+                : saleRecordRepository.findByProductIdIn(productIds, position, sort, Limit.of(size));
+
+        String nextCursor = window.hasNext() && !window.isEmpty()
+                ? SALE_CURSOR.encode(window.positionAt(window.size() - 1), sortBy, dir)
+                : null;
+        Long total = !includeTotal ? null : searching
+                ? countCache.get(search.trim().toLowerCase(), () -> byName
+                        ? saleRecordRepository.countByProductNameContainingIgnoreCase(search.trim())
+                        : saleRecordRepository.countByProductIdIn(productIds))
+                : countCache.get("", saleRecordRepository::count);
+
+        List<SaleListItem> content = window.getContent().stream()
+                .map(s -> new SaleListItem(s.getId(), s.getProduct() != null ? s.getProduct().getName() : null,
+                        s.getQuantity(), s.getTotalAmount(), s.getDate()))
+                .toList();
+        return new CursorPage<>(content, nextCursor, window.hasNext(), total);
+    }
+
+    // Case-insensitive substring pattern for LIKE ... ESCAPE '\', matching ProductNameIndex's normalization
+    private static String likePattern(String term) {
+        String escaped = term.trim().toLowerCase(Locale.ROOT)
+                .replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+        return "%" + escaped + "%";
     }
 }
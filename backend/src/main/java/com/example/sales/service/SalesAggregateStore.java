@@ -0,0 +1,165 @@
+package com.example.sales.service;
+
+import com.example.sales.dto.ProductDayQuantity;
+import com.example.sales.dto.SalesReportDto;
+import com.example.sales.entity.Product;
+import com.example.sales.event.DashboardChangedEvent;
+import com.example.sales.event.ProductChangedEvent;
+import com.example.sales.event.SaleRecordedEvent;
+import com.example.sales.repository.ProductRepository;
+import com.example.sales.repository.SaleRepository;
+import com.example.sales.repository.SaleRollupRepository;
+import com.example.sales.service.SalesAggregation.GroupBy;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Dashboard aggregates kept up to date from sale and product events instead of rescanning the sales table.
+// Revenue follows the report's definition (current unit price x quantity), so a price change re-values
+// every day the product was sold on.
+@Component
+public class SalesAggregateStore implements SmartInitializingSingleton {
+
+    private final SaleRepository saleRepository;
+    private final SaleRollupRepository saleRollupRepository;
+    private final ProductRepository productRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final Map<Long, ProductInfo> products = new HashMap<>();
+    // Units sold per product, and per day for each product, so a price change re-values only that product's days
+    private SalesAggregation productQuantities = new SalesAggregation(GroupBy.PRODUCT);
+    private final Map<Long, SalesAggregation> productDayQuantities = new HashMap<>();
+    // Revenue per day at current prices
+    private SalesAggregation dailySales = new SalesAggregation(GroupBy.DATE);
+    private long totalProductsSold;
+
+    public SalesAggregateStore(SaleRepository saleRepository, SaleRollupRepository saleRollupRepository,
+                               ProductRepository productRepository, ApplicationEventPublisher eventPublisher) {
+        this.saleRepository = saleRepository;
+        this.saleRollupRepository = saleRollupRepository;
+        this.productRepository = productRepository;
+        this.eventPublisher = eventPublisher;
+    }
+
+    // Runs once all singletons (including the data.sql initializer) are ready and before the web server accepts traffic
+    @Override
+    public void afterSingletonsInstantiated() {
+        rebuild();
+    }
+
+    public synchronized void rebuild() {
+        products.clear();
+        totalProductsSold = 0;
+
+        List<Product> all = productRepository.findAll();
+        for (Product product : all) {
+            products.put(product.getId(), new ProductInfo(product.getName(), product.getPrice()));
+        }
+
+        // Hot and compacted rows; a day can appear in both when a sale was back-dated into a compacted month
+        List<ProductDayQuantity> rows = new ArrayList<>(saleRepository.sumQuantityByProductAndDate());
+        rows.addAll(saleRollupRepository.sumQuantityByProductAndDate());
+        productQuantities = new SalesAggregation(GroupBy.PRODUCT, all.size());
+        productDayQuantities.clear();
+        dailySales = new SalesAggregation(GroupBy.DATE);
+        for (ProductDayQuantity row : rows) {
+            addQuantity(row.getProductId(), row.getDate(), row.getQuantity());
+        }
+    }
+
+    // The DashboardChangedEvent is published under the lock so listeners see changes in the order they were applied;
+    // they must only record it and return
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onSaleRecorded(SaleRecordedEvent event) {
+        addQuantity(event.productId(), event.date(), event.quantity());
+        ProductInfo product = event.productId() == null ? null : products.get(event.productId());
+        eventPublisher.publishEvent(new DashboardChangedEvent(event, product != null ? product.name : null,
+                dailySales.totalAmount(), totalProductsSold,
+                dailySales.amount(SalesAggregation.NONE, event.date().toEpochDay()),
+                product != null ? productQuantities.quantity(event.productId(), SalesAggregation.NONE) * product.price : 0));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onProductChanged(ProductChangedEvent event) {
+        ProductInfo product = products.get(event.productId());
+        switch (event.type()) {
+            case CREATED -> products.put(event.productId(), new ProductInfo(event.name(), event.price()));
+            case DELETED -> {
+                if (product != null && productQuantities.quantity(event.productId(), SalesAggregation.NONE) == 0)
+                    products.remove(event.productId());
+            }
+            case UPDATED, DEACTIVATED -> {
+                if (product == null) return;
+                // Renaming or repricing a product that has sales changes figures beyond a single delta
+                boolean changed = false;
+                if (event.name() != null && !event.name().equals(product.name)) {
+                    product.name = event.name();
+                    changed = true;
+                }
+                if (event.price() != null && event.price() != product.price) {
+                    reprice(event.productId(), product, event.price());
+                    changed = true;
+                }
+                if (changed && productQuantities.quantity(event.productId(), SalesAggregation.NONE) > 0)
+                    eventPublisher.publishEvent(DashboardChangedEvent.reload());
+            }
+        }
+    }
+
+    public synchronized SalesReportDto snapshot() {
+        List<SalesReportDto.SalesTrendItem> salesTrend = new ArrayList<>(dailySales.size());
+        dailySales.forEachSorted((productId, epochDay, quantity, sales) ->
+                salesTrend.add(new SalesReportDto.SalesTrendItem(LocalDate.ofEpochDay(epochDay), sales)));
+
+        List<SalesReportDto.CategorySalesItem> salesByProduct = new ArrayList<>();
+        productQuantities.forEachSorted((productId, epochDay, quantity, amount) -> {
+            ProductInfo product = products.get(productId);
+            if (product == null) return;
+            double productTotal = quantity * product.price;
+            if (productTotal > 0) {
+                salesByProduct.add(new SalesReportDto.CategorySalesItem(product.name, productTotal));
+            }
+        });
+
+        return new SalesReportDto(dailySales.totalAmount(), (int) totalProductsSold, salesTrend, salesByProduct);
+    }
+
+    private void addQuantity(Long productId, LocalDate date, long quantity) {
+        totalProductsSold += quantity;
+
+        // Sales detached from their product still count as sold units but carry no revenue
+        ProductInfo product = productId == null ? null : products.get(productId);
+        if (product == null) return;
+
+        long epochDay = date.toEpochDay();
+        productQuantities.add(productId, epochDay, quantity, 0);
+        productDayQuantities.computeIfAbsent(productId, id -> new SalesAggregation(GroupBy.DATE)).add(productId, epochDay, quantity, 0);
+        dailySales.add(productId, epochDay, quantity, quantity * product.price);
+    }
+
+    // O(days the product was sold on), so a bulk price import doesn't rescan every product's days per product
+    private void reprice(long productId, ProductInfo product, double newPrice) {
+        double delta = newPrice - product.price;
+        product.price = newPrice;
+        SalesAggregation days = productDayQuantities.get(productId);
+        if (days == null) return;
+        days.forEach((id, epochDay, quantity, amount) -> dailySales.add(productId, epochDay, 0, delta * quantity));
+    }
+
+    private static final class ProductInfo {
+        private String name;
+        private double price;
+
+        private ProductInfo(String name, Double price) {
+            this.name = name;
+            this.price = price != null ? price : 0;
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.example.sales.service;
+
+import java.time.LocalDate;
+
+// Single-pass group-by over sales. Groups live in an open-addressing table keyed by (product id, epoch day)
+// with parallel primitive arrays for the sums, so adding a sale neither allocates nor boxes. The dimension a
+// grouping ignores is stored as NONE. Not thread-safe; callers confine an instance or guard it themselves.
+public final class SalesAggregation {
+
+    public enum GroupBy { PRODUCT, DATE, PRODUCT_AND_DATE }
+
+    public static final long NONE = Long.MIN_VALUE;
+
+    private static final int MIN_CAPACITY = 16;
+
+    private final GroupBy groupBy;
+    private long[] productIds;
+    private long[] epochDays;
+    private long[] quantities;
+    private double[] amounts;
+    private boolean[] used;
+    private int size;
+    private long totalQuantity;
+    private double totalAmount;
+
+    public SalesAggregation(GroupBy groupBy) {
+        this(groupBy, MIN_CAPACITY);
+    }
+
+    public SalesAggregation(GroupBy groupBy, int expectedGroups) {
+        this.groupBy = groupBy;
+        allocate(capacityFor(expectedGroups));
+    }
+
+    public void add(long productId, LocalDate date, long quantity, double amount) {
+        add(productId, date.toEpochDay(), quantity, amount);
+    }
+
+    public void add(long productId, long epochDay, long quantity, double amount) {
+        long product = groupBy == GroupBy.DATE ? NONE : productId;
+        long day = groupBy == GroupBy.PRODUCT ? NONE : epochDay;
+
+        int slot = find(product, day);
+        if (!used[slot]) {
+            if (size + 1 > threshold()) {
+                grow();
+                slot = find(product, day);
+            }
+            used[slot] = true;
+            productIds[slot] = product;
+            epochDays[slot] = day;
+            size++;
+        }
+        quantities[slot] += quantity;
+        amounts[slot] += amount;
+        totalQuantity += quantity;
+        totalAmount += amount;
+    }
+
+    public long quantity(long productId, long epochDay) {
+        int slot = find(groupBy == GroupBy.DATE ? NONE : productId, groupBy == GroupBy.PRODUCT ? NONE : epochDay);
+        return used[slot] ? quantities[slot] : 0;
+    }
+
+    public double amount(long productId, long epochDay) {
+        int slot = find(groupBy == GroupBy.DATE ? NONE : productId, groupBy == GroupBy.PRODUCT ? NONE : epochDay);
+        return used[slot] ? amounts[slot] : 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long totalQuantity() {
+        return totalQuantity;
+    }
+
+    public double totalAmount() {
+        return totalAmount;
+    }
+
+    // Visits groups in table order
+    public void forEach(GroupConsumer consumer) {
+        for (int slot = 0; slot < used.length; slot++) {
+            if (used[slot]) consumer.accept(productIds[slot], epochDays[slot], quantities[slot], amounts[slot]);
+        }
+    }
+
+    // Visits groups ordered by product id, then date
+    public void forEachSorted(GroupConsumer consumer) {
+        int[] slots = new int[size];
+        int n = 0;
+        for (int slot = 0; slot < used.length; slot++) {
+            if (used[slot]) slots[n++] = slot;
+        }
+        sort(slots, new int[size], 0, size);
+        for (int slot : slots) consumer.accept(productIds[slot], epochDays[slot], quantities[slot], amounts[slot]);
+    }
+
+    private int find(long product, long day) {
+        int mask = used.length - 1;
+        int slot = hash(product, day) & mask;
+        while (used[slot] && (productIds[slot] != product || epochDays[slot] != day)) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void grow() {
+        long[] oldProducts = productIds;
+        long[] oldDays = epochDays;
+        long[] oldQuantities = quantities;
+        double[] oldAmounts = amounts;
+        boolean[] oldUsed = used;
+
+        allocate(used.length * 2);
+        for (int i = 0; i < oldUsed.length; i++) {
+            if (!oldUsed[i]) continue;
+            int slot = find(oldProducts[i], oldDays[i]);
+            used[slot] = true;
+            productIds[slot] = oldProducts[i];
+            epochDays[slot] = oldDays[i];
+            quantities[slot] = oldQuantities[i];
+            amounts[slot] = oldAmounts[i];
+        }
+    }
+
+    private void allocate(int capacity) {
+        productIds = new long[capacity];
+        epochDays = new long[capacity];
+        quantities = new long[capacity];
+        amounts = new double[capacity];
+        used = new boolean[capacity];
+    }
+
+    // Keeps the table at most half full so probe sequences stay short
+    private int threshold() {
+        return used.length / 2;
+    }
+
+    private static int capacityFor(int expectedGroups) {
+        int capacity = MIN_CAPACITY;
+        while (capacity / 2 < expectedGroups) capacity <<= 1;
+        return capacity;
+    }
+
+    private static int hash(long product, long day) {
+        long h = product * 0x9E3779B97F4A7C15L + day;
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        return (int) h;
+    }
+
+    // Merge sort of slot indexes by (product id, day), avoiding a boxed comparator
+    private void sort(int[] slots, int[] buffer, int from, int to) {
+        if (to - from < 2) return;
+        int mid = (from + to) >>> 1;
+        sort(slots, buffer, from, mid);
+        sort(slots, buffer, mid, to);
+        if (compare(slots[mid - 1], slots[mid]) <= 0) return;
+
+        System.arraycopy(slots, from, buffer, from, to - from);
+        int left = from;
+        int right = mid;
+        for (int i = from; i < to; i++) {
+            if (right >= to || (left < mid && compare(buffer[left], buffer[right]) <= 0)) slots[i] = buffer[left++];
+            else slots[i] = buffer[right++];
+        }
+    }
+
+    private int compare(int a, int b) {
+        int byProduct = Long.compare(productIds[a], productIds[b]);
+        return byProduct != 0 ? byProduct : Long.compare(epochDays[a], epochDays[b]);
+    }
+
+    @FunctionalInterface
+    public interface GroupConsumer {
+        void accept(long productId, long epochDay, long quantity, double amount);
+    }
+}
@@ -0,0 +1,285 @@
+package com.example.sales.service;
+
+import com.example.sales.dto.SalesReportDto;
+import com.example.sales.entity.Product;
+import com.example.sales.event.ProductChangedEvent;
+import com.example.sales.event.SaleRecordedEvent;
+import com.example.sales.metrics.MetricsRegistry;
+import com.example.sales.repository.ProductRepository;
+import com.example.sales.service.SalesAggregation.GroupBy;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+// Columnar copy of the sales facts for ad-hoc reports: one row per stored product-day (both partitions) plus one
+// per sale recorded since startup, kept as parallel int arrays of product code, day code and quantity, about
+// 12 bytes a row. Products and days are dictionary-encoded into dense codes, so a scan filters and accumulates
+// into flat arrays indexed by code, without hashing or boxing. Revenue is quantity x current unit price, as
+// everywhere else in the reports, so prices live in the product dictionary rather than in a column.
+//
+// Appends happen under the lock and publish a new Columns snapshot. Readers scan the snapshot's first size rows
+// without locking: later appends only write past that point or into grown copies of the arrays.
+@Component
+public class SalesColumnStore implements SmartInitializingSingleton {
+
+    private static final String LOAD_SQL =
+            "SELECT product_id, date, quantity FROM sales UNION ALL SELECT product_id, date, quantity FROM sales_rollups";
+
+    // Rows below this are scanned on the calling thread; above it the scan is split into contiguous ranges,
+    // one per report pool worker at most
+    private static final int MIN_ROWS_PER_TASK = 1 << 16;
+    private static final int INITIAL_CAPACITY = 1 << 12;
+
+    // Product code of sales detached from their product; they count as sold units but carry no revenue
+    private static final int NO_PRODUCT = -1;
+    private static final int ALL_PRODUCTS = -2;
+    // Filter for a product the store has no rows for
+    private static final int UNKNOWN_PRODUCT = Integer.MIN_VALUE;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ProductRepository productRepository;
+    private final ForkJoinPool reportPool;
+
+    private volatile Columns columns = new Columns(new int[INITIAL_CAPACITY], new int[INITIAL_CAPACITY], new int[INITIAL_CAPACITY], 0);
+
+    // Dictionaries, guarded by this
+    private final Map<Long, Integer> productCodes = new HashMap<>();
+    private long[] productIds = new long[64];
+    private String[] productNames = new String[64];
+    private double[] prices = new double[64];
+    private int productCount;
+    private final Map<Integer, Integer> dayCodes = new HashMap<>();
+    private int[] epochDays = new int[64];
+    private int dayCount;
+
+    public SalesColumnStore(JdbcTemplate jdbcTemplate, ProductRepository productRepository, ForkJoinPool reportPool,
+                            MetricsRegistry metricsRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.productRepository = productRepository;
+        this.reportPool = reportPool;
+        metricsRegistry.gauge("sales_column_store_rows", "Rows held by the columnar sales store", () -> columns.size);
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        load();
+    }
+
+    public synchronized void load() {
+        productCodes.clear();
+        productCount = 0;
+        dayCodes.clear();
+        dayCount = 0;
+        columns = new Columns(new int[INITIAL_CAPACITY], new int[INITIAL_CAPACITY], new int[INITIAL_CAPACITY], 0);
+
+        for (Product product : productRepository.findAll()) {
+            putProduct(product.getId(), product.getName(), product.getPrice());
+        }
+        jdbcTemplate.query(LOAD_SQL, rs -> {
+            long productId = rs.getLong(1);
+            append(rs.wasNull() ? null : productId, rs.getDate(2).toLocalDate(), rs.getInt(3));
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onSaleRecorded(SaleRecordedEvent event) {
+        append(event.productId(), event.date(), event.quantity());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onProductChanged(ProductChangedEvent event) {
+        if (event.type() == ProductChangedEvent.ChangeType.DELETED) return;
+        Integer code = productCodes.get(event.productId());
+        if (code == null) {
+            putProduct(event.productId(), event.name(), event.price());
+            return;
+        }
+        if (event.name() != null) productNames[code] = event.name();
+        if (event.price() != null) prices[code] = event.price();
+    }
+
+    // Summary over [from, to] (either bound may be null), optionally for one product: revenue per day, and per
+    // product best sellers first (ties by id), cut to the top N
+    public SalesReportDto summarize(LocalDate from, LocalDate to, Long productId, Integer topN) {
+        Columns snapshot;
+        long[] ids;
+        String[] names;
+        double[] unitPrices;
+        int[] days;
+        int productFilter;
+        synchronized (this) {
+            snapshot = columns;
+            ids = Arrays.copyOf(productIds, productCount);
+            names = Arrays.copyOf(productNames, productCount);
+            unitPrices = Arrays.copyOf(prices, productCount);
+            days = Arrays.copyOf(epochDays, dayCount);
+            Integer code = productId == null ? null : productCodes.get(productId);
+            productFilter = productId == null ? ALL_PRODUCTS : code != null ? code : UNKNOWN_PRODUCT;
+        }
+
+        long fromDay = from != null ? from.toEpochDay() : Long.MIN_VALUE;
+        long toDay = to != null ? to.toEpochDay() : Long.MAX_VALUE;
+        boolean[] dayInRange = new boolean[days.length];
+        for (int code = 0; code < days.length; code++) {
+            dayInRange[code] = days[code] >= fromDay && days[code] <= toDay;
+        }
+
+        Query query = new Query(snapshot, dayInRange, productFilter, unitPrices);
+        int tasks = Math.max(1, Math.min(reportPool.getParallelism(), snapshot.size / MIN_ROWS_PER_TASK));
+        Partial result;
+        if (tasks == 1) {
+            result = query.scan(0, snapshot.size);
+        } else {
+            List<ForkJoinTask<Partial>> ranges = new ArrayList<>(tasks);
+            for (int task = 0; task < tasks; task++) {
+                int rangeStart = (int) ((long) snapshot.size * task / tasks);
+                int rangeEnd = (int) ((long) snapshot.size * (task + 1) / tasks);
+                ranges.add(reportPool.submit(() -> query.scan(rangeStart, rangeEnd)));
+            }
+            result = ranges.get(0).join();
+            for (int task = 1; task < tasks; task++) {
+                result.merge(ranges.get(task).join());
+            }
+        }
+
+        SalesAggregation byDay = new SalesAggregation(GroupBy.DATE, days.length);
+        for (int code = 0; code < days.length; code++) {
+            if (result.dayQuantities[code] > 0) {
+                byDay.add(SalesAggregation.NONE, days[code], result.dayQuantities[code], result.daySales[code]);
+            }
+        }
+        List<SalesReportDto.SalesTrendItem> salesTrend = new ArrayList<>(byDay.size());
+        byDay.forEachSorted((id, epochDay, quantity, sales) ->
+                salesTrend.add(new SalesReportDto.SalesTrendItem(LocalDate.ofEpochDay(epochDay), sales)));
+
+        SalesAggregation byProduct = new SalesAggregation(GroupBy.PRODUCT, ids.length);
+        Map<Long, String> namesById = new HashMap<>();
+        for (int code = 0; code < ids.length; code++) {
+            if (result.productQuantities[code] > 0) {
+                byProduct.add(ids[code], SalesAggregation.NONE, result.productQuantities[code], result.productSales[code]);
+                namesById.put(ids[code], names[code]);
+            }
+        }
+        List<SalesReportDto.CategorySalesItem> salesByProduct = new ArrayList<>(byProduct.size());
+        byProduct.forEachSorted((id, epochDay, quantity, sales) ->
+                salesByProduct.add(new SalesReportDto.CategorySalesItem(namesById.get(id), sales)));
+        // Products are visited by id and the sort is stable, so equal totals stay in id order
+        salesByProduct.sort(Comparator.comparingDouble(SalesReportDto.CategorySalesItem::getValue).reversed());
+
+        return new SalesReportDto(byDay.totalAmount(), (int) byDay.totalQuantity(), salesTrend,
+                topN != null && salesByProduct.size() > topN ? salesByProduct.subList(0, topN) : salesByProduct);
+    }
+
+    private void append(Long productId, LocalDate date, int quantity) {
+        int productCode = productId == null ? NO_PRODUCT : productCode(productId);
+        int dayCode = dayCode((int) date.toEpochDay());
+
+        Columns current = columns;
+        int[] products = current.products;
+        int[] dayColumn = current.days;
+        int[] quantities = current.quantities;
+        int size = current.size;
+        if (size == products.length) {
+            int capacity = products.length + (products.length >> 1);
+            products = Arrays.copyOf(products, capacity);
+            dayColumn = Arrays.copyOf(dayColumn, capacity);
+            quantities = Arrays.copyOf(quantities, capacity);
+        }
+        products[size] = productCode;
+        dayColumn[size] = dayCode;
+        quantities[size] = quantity;
+        columns = new Columns(products, dayColumn, quantities, size + 1);
+    }
+
+    // Sales of a product the store has not seen yet are kept without revenue until the product event arrives
+    private int productCode(long productId) {
+        Integer code = productCodes.get(productId);
+        return code != null ? code : putProduct(productId, null, null);
+    }
+
+    private int putProduct(long productId, String name, Double price) {
+        if (productCount == productIds.length) {
+            productIds = Arrays.copyOf(productIds, productCount * 2);
+            productNames = Arrays.copyOf(productNames, productCount * 2);
+            prices = Arrays.copyOf(prices, productCount * 2);
+        }
+        int code = productCount++;
+        productIds[code] = productId;
+        productNames[code] = name;
+        prices[code] = price != null ? price : 0;
+        productCodes.put(productId, code);
+        return code;
+    }
+
+    private int dayCode(int epochDay) {
+        Integer code = dayCodes.get(epochDay);
+        if (code != null) return code;
+        if (dayCount == epochDays.length) epochDays = Arrays.copyOf(epochDays, dayCount * 2);
+        epochDays[dayCount] = epochDay;
+        dayCodes.put(epochDay, dayCount);
+        return dayCount++;
+    }
+
+    private record Columns(int[] products, int[] days, int[] quantities, int size) {}
+
+    private record Query(Columns columns, boolean[] dayInRange, int productFilter, double[] prices) {
+
+        // Tight loop over the columns of rows [from, to); accumulates into arrays indexed by day and product code
+        private Partial scan(int from, int to) {
+            int[] products = columns.products;
+            int[] days = columns.days;
+            int[] quantities = columns.quantities;
+            Partial partial = new Partial(dayInRange.length, prices.length);
+            boolean allProducts = productFilter == ALL_PRODUCTS;
+            for (int i = from; i < to; i++) {
+                int day = days[i];
+                int product = products[i];
+                if (!dayInRange[day] || (!allProducts && product != productFilter)) continue;
+                int quantity = quantities[i];
+                partial.dayQuantities[day] += quantity;
+                if (product == NO_PRODUCT) continue;
+                double sales = quantity * prices[product];
+                partial.daySales[day] += sales;
+                partial.productQuantities[product] += quantity;
+                partial.productSales[product] += sales;
+            }
+            return partial;
+        }
+    }
+
+    private static final class Partial {
+        private final long[] dayQuantities;
+        private final double[] daySales;
+        private final long[] productQuantities;
+        private final double[] productSales;
+
+        private Partial(int days, int products) {
+            this.dayQuantities = new long[days];
+            this.daySales = new double[days];
+            this.productQuantities = new long[products];
+            this.productSales = new double[products];
+        }
+
+        private void merge(Partial other) {
+            for (int i = 0; i < dayQuantities.length; i++) {
+                dayQuantities[i] += other.dayQuantities[i];
+                daySales[i] += other.daySales[i];
+            }
+            for (int i = 0; i < productQuantities.length; i++) {
+                productQuantities[i] += other.productQuantities[i];
+                productSales[i] += other.productSales[i];
+            }
+        }
+    }
+}
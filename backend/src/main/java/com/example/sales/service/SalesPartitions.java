@@ -0,0 +1,145 @@
+package com.example.sales.service;
+
+import com.example.sales.repository.SaleRollupRepository;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Sales are split by month. The current month and the previous hot-months months stay in the sales table,
+// where new sales are written and merged; older months are compacted into sales_rollups, one row per product
+// and day (unique through uk_sales_rollups_product_date). Listings read both through SaleRecord, and reports only read rollups when the requested
+// range reaches back past the newest compacted month.
+@Component
+public class SalesPartitions implements SmartInitializingSingleton {
+
+    private static final int JDBC_BATCH = 500;
+
+    private static final String OLDEST_BEFORE_SQL = "SELECT MIN(date) FROM sales WHERE date < ?";
+    // Locks the month's rows, so a concurrent merge into one of them waits and then finds it gone
+    private static final String LOCK_MONTH_SQL =
+            "SELECT id, product_id, quantity, total_amount, date FROM sales WHERE date >= ? AND date < ? FOR UPDATE";
+    // Sales back-dated into a month compacted earlier are added to the day's existing rollup
+    private static final String MERGE_ROLLUP_SQL =
+            "UPDATE sales_rollups SET quantity = quantity + ?, total_amount = total_amount + ? WHERE product_id = ? AND date = ?";
+    private static final String INSERT_ROLLUP_SQL =
+            "INSERT INTO sales_rollups (id, product_id, quantity, total_amount, date) VALUES (?, ?, ?, ?, ?)";
+    private static final String DELETE_SALE_SQL = "DELETE FROM sales WHERE id = ?";
+
+    private final SaleRollupRepository saleRollupRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int hotMonths;
+
+    // Dates before this may have rollups; null while nothing has been compacted
+    private volatile LocalDate coldBefore;
+
+    public SalesPartitions(SaleRollupRepository saleRollupRepository, JdbcTemplate jdbcTemplate,
+                           PlatformTransactionManager transactionManager,
+                           @Value("${sales.partitions.hot-months:3}") int hotMonths) {
+        if (hotMonths < 0) throw new IllegalArgumentException("sales.partitions.hot-months must not be negative");
+        this.saleRollupRepository = saleRollupRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.hotMonths = hotMonths;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        LocalDate newest = saleRollupRepository.findMaxDate();
+        if (newest != null) coldBefore = newest.withDayOfMonth(1).plusMonths(1);
+    }
+
+    // Whether a date range starting at from (null when open-ended) can include compacted sales
+    public boolean includesCold(LocalDate from) {
+        LocalDate bound = coldBefore;
+        return bound != null && (from == null || from.isBefore(bound));
+    }
+
+    @Scheduled(cron = "${sales.partitions.compaction-cron:0 30 2 * * *}")
+    public void compactScheduled() {
+        compact();
+    }
+
+    // Compacts every month older than the hot window, one transaction per month; returns the sales rows replaced.
+    // Sales back-dated into a compacted month land in the sales table and are folded into its rollups by the next run.
+    public synchronized int compact() {
+        LocalDate cutoff = LocalDate.now().withDayOfMonth(1).minusMonths(hotMonths);
+        Date oldest = jdbcTemplate.queryForObject(OLDEST_BEFORE_SQL, Date.class, Date.valueOf(cutoff));
+        if (oldest == null) return 0;
+
+        int compacted = 0;
+        for (LocalDate month = oldest.toLocalDate().withDayOfMonth(1); month.isBefore(cutoff); month = month.plusMonths(1)) {
+            LocalDate start = month;
+            LocalDate end = month.plusMonths(1);
+            // Widened before the rows move, so no report skips rollups that are already committed
+            if (coldBefore == null || coldBefore.isBefore(end)) coldBefore = end;
+            compacted += transactionTemplate.execute(status -> compactMonth(start, end));
+        }
+        return compacted;
+    }
+
+    private int compactMonth(LocalDate start, LocalDate end) {
+        List<Long> saleIds = new ArrayList<>();
+        Map<RollupKey, Rollup> rollups = new LinkedHashMap<>();
+        jdbcTemplate.query(LOCK_MONTH_SQL, rs -> {
+            long id = rs.getLong(1);
+            Long productId = rs.getObject(2, Long.class);
+            RollupKey key = new RollupKey(productId, rs.getDate(5).toLocalDate());
+            Rollup rollup = rollups.computeIfAbsent(key, k -> new Rollup(id));
+            rollup.id = Math.min(rollup.id, id);
+            rollup.quantity += rs.getLong(3);
+            rollup.totalAmount += rs.getDouble(4);
+            saleIds.add(id);
+        }, Date.valueOf(start), Date.valueOf(end));
+        if (saleIds.isEmpty()) return 0;
+
+        List<RollupKey> keys = new ArrayList<>(rollups.keySet());
+        List<Object[]> merges = new ArrayList<>(keys.size());
+        for (RollupKey key : keys) {
+            Rollup rollup = rollups.get(key);
+            merges.add(new Object[]{rollup.quantity, rollup.totalAmount, key.productId, Date.valueOf(key.date)});
+        }
+        List<Object[]> inserts = new ArrayList<>(keys.size());
+        for (int i = 0; i < merges.size(); i += JDBC_BATCH) {
+            int[] counts = jdbcTemplate.batchUpdate(MERGE_ROLLUP_SQL, merges.subList(i, Math.min(i + JDBC_BATCH, merges.size())));
+            for (int j = 0; j < counts.length; j++) {
+                if (counts[j] != 0) continue;
+                RollupKey key = keys.get(i + j);
+                Rollup rollup = rollups.get(key);
+                inserts.add(new Object[]{rollup.id, key.productId, rollup.quantity, rollup.totalAmount, Date.valueOf(key.date)});
+            }
+        }
+        List<Object[]> deletes = saleIds.stream().map(id -> new Object[]{id}).toList();
+
+        for (int i = 0; i < inserts.size(); i += JDBC_BATCH) {
+            jdbcTemplate.batchUpdate(INSERT_ROLLUP_SQL, inserts.subList(i, Math.min(i + JDBC_BATCH, inserts.size())));
+        }
+        for (int i = 0; i < deletes.size(); i += JDBC_BATCH) {
+            jdbcTemplate.batchUpdate(DELETE_SALE_SQL, deletes.subList(i, Math.min(i + JDBC_BATCH, deletes.size())));
+        }
+        return saleIds.size();
+    }
+
+    private record RollupKey(Long productId, LocalDate date) {}
+
+    private static final class Rollup {
+        private long id;
+        private long quantity;
+        private double totalAmount;
+
+        private Rollup(long id) {
+            this.id = id;
+        }
+    }
+}
@@ -0,0 +1,22 @@
+-- Tables as mapped by the Product and Sale entities; ddl-auto=validate checks them at startup
+CREATE TABLE products (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name VARCHAR(255) NOT NULL,
+    price FLOAT(53) NOT NULL,
+    quantity INTEGER NOT NULL,
+    active BOOLEAN NOT NULL
+);
+
+CREATE TABLE sales (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    product_id BIGINT,
+    quantity INTEGER NOT NULL,
+    date DATE NOT NULL,
+    total_amount FLOAT(53) NOT NULL,
+    CONSTRAINT fk_sales_product FOREIGN KEY (product_id) REFERENCES products (id)
+);
+
+-- Product filters and the keyset export seek on (product_id, date); date ranges without a product use idx_sales_date
+CREATE INDEX idx_sales_product_date ON sales (product_id, date);
+CREATE INDEX idx_sales_date ON sales (date);
+CREATE INDEX idx_products_name ON products (name);
@@ -0,0 +1,12 @@
+-- Compacted months: one row per product and day, keyed by the smallest id of the sales it replaces
+CREATE TABLE sales_rollups (
+    id BIGINT PRIMARY KEY,
+    product_id BIGINT,
+    quantity INTEGER NOT NULL,
+    date DATE NOT NULL,
+    total_amount FLOAT(53) NOT NULL,
+    CONSTRAINT fk_sales_rollups_product FOREIGN KEY (product_id) REFERENCES products (id),
+    CONSTRAINT uk_sales_rollups_product_date UNIQUE (product_id, date)
+);
+
+CREATE INDEX idx_sales_rollups_date ON sales_rollups (date);
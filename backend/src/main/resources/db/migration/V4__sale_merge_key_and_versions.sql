@@ -0,0 +1,16 @@
+-- Optimistic locking columns; rows written by plain SQL start at 0
+ALTER TABLE products ADD COLUMN version BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE sales ADD COLUMN version BIGINT DEFAULT 0 NOT NULL;
+
+-- Fold duplicate (product, day) rows left by earlier concurrent inserts into the oldest one
+UPDATE sales s SET
+    quantity = (SELECT SUM(d.quantity) FROM sales d WHERE d.product_id = s.product_id AND d.date = s.date),
+    total_amount = (SELECT SUM(d.total_amount) FROM sales d WHERE d.product_id = s.product_id AND d.date = s.date)
+WHERE s.id IN (SELECT MIN(id) FROM sales WHERE product_id IS NOT NULL GROUP BY product_id, date HAVING COUNT(*) > 1);
+DELETE FROM sales s
+WHERE s.product_id IS NOT NULL
+  AND s.id > (SELECT MIN(d.id) FROM sales d WHERE d.product_id = s.product_id AND d.date = s.date);
+
+-- One row per product and day; the unique index replaces the plain (product_id, date) index
+ALTER TABLE sales ADD CONSTRAINT uk_sales_product_date UNIQUE (product_id, date);
+DROP INDEX idx_sales_product_date;
@@ -0,0 +1,39 @@
+package com.example.sales.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "metrics.scrape-token=test-scrape-token")
+@AutoConfigureMockMvc
+class MetricsControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void scrapeNeedsCredentials() throws Exception {
+        mockMvc.perform(get("/api/metrics")).andExpect(status().is4xxClientError());
+        mockMvc.perform(get("/api/metrics").header("Authorization", "Bearer test-scrape-token"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void histogramMaximaAreASeparateGaugeFamily() throws Exception {
+        String body = mockMvc.perform(get("/api/metrics").header("Authorization", "Bearer test-scrape-token"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertThat(body).contains("# TYPE http_server_requests_seconds histogram\n");
+        assertThat(body).contains("# TYPE http_server_requests_seconds_max gauge\n");
+        String histogram = body.substring(body.indexOf("# TYPE http_server_requests_seconds histogram"),
+                body.indexOf("# HELP http_server_requests_seconds_max"));
+        assertThat(histogram).doesNotContain("_max");
+    }
+}
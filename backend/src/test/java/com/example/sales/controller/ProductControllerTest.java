@@ -0,0 +1,53 @@
+package com.example.sales.controller;
+
+import com.example.sales.entity.Product;
+import com.example.sales.service.ProductService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.UUID;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc(addFilters = false)
+class ProductControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ProductService productService;
+
+    @Test
+    void updateWithCurrentVersionSucceeds() throws Exception {
+        Product product = productService.createProduct(new Product("Versioned " + UUID.randomUUID(), 10.0, 5));
+
+        mockMvc.perform(put("/api/products/{id}", product.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"price\": 12.0, \"version\": " + product.getVersion() + "}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.price").value(12.0))
+                .andExpect(jsonPath("$.version").value(product.getVersion() + 1));
+    }
+
+    @Test
+    void updateWithStaleVersionIsAConflict() throws Exception {
+        Product product = productService.createProduct(new Product("Versioned " + UUID.randomUUID(), 10.0, 5));
+        long staleVersion = product.getVersion();
+        Product change = new Product();
+        change.setPrice(11.0);
+        productService.updateProduct(product.getId(), change);
+
+        mockMvc.perform(put("/api/products/{id}", product.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"price\": 12.0, \"version\": " + staleVersion + "}"))
+                .andExpect(status().isConflict());
+    }
+}
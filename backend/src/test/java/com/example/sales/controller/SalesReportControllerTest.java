@@ -0,0 +1,51 @@
+package com.example.sales.controller;
+
+import com.example.sales.dto.ReportCompression;
+import com.example.sales.dto.ReportFormat;
+import com.example.sales.service.ReportSnapshotService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc(addFilters = false)
+class SalesReportControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ReportSnapshotService reportSnapshotService;
+
+    // Yesterday's snapshot is generated in the background at startup
+    @Test
+    void excelDownloadOfAClosedDayIsServedFromItsSnapshot() throws Exception {
+        LocalDate yesterday = LocalDate.now().minusDays(1);
+        Path snapshot = null;
+        for (int attempt = 0; attempt < 100 && snapshot == null; attempt++) {
+            snapshot = reportSnapshotService.find(ReportFormat.XLSX, ReportCompression.NONE, yesterday, yesterday);
+            if (snapshot == null) Thread.sleep(100);
+        }
+        assertThat(snapshot).isNotNull();
+
+        mockMvc.perform(get("/api/sales-report/excel")
+                        .param("from", yesterday.toString())
+                        .param("to", yesterday.toString()))
+                .andExpect(status().isOk())
+                .andExpect(header().longValue("Content-Length", Files.size(snapshot)))
+                .andExpect(content().contentType(ReportFormat.XLSX.getContentType()))
+                .andExpect(content().bytes(Files.readAllBytes(snapshot)));
+    }
+}
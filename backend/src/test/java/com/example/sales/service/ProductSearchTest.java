@@ -0,0 +1,78 @@
+package com.example.sales.service;
+
+import com.example.sales.dto.CursorPage;
+import com.example.sales.dto.SaleListItem;
+import com.example.sales.entity.Product;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Name searches matching more products than are bound as ids fall back to filtering by name in the query.
+// The seeded rows are rolled back, and the context (whose name index saw them) is discarded afterwards.
+@SpringBootTest
+@Transactional
+@DirtiesContext
+class ProductSearchTest {
+
+    private static final int PRODUCTS = 1200;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private SaleService saleService;
+
+    @Autowired
+    private ProductNameIndex productNameIndex;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void searchMatchingManyProductsStillPagesAndCounts() {
+        seed("Bulk_Widget ", PRODUCTS);
+        // A LIKE wildcard in the term is matched literally, as by the index
+        seed("BulkXWidget ", 3);
+
+        assertThat(productNameIndex.search("bulk_widget", true, 1000)).isNull();
+
+        Page<Product> products = productService.getPaginatedProducts(1, 50, "id", "asc", "bulk_widget");
+        assertThat(products.getTotalElements()).isEqualTo(PRODUCTS);
+        assertThat(products.getContent()).hasSize(50)
+                .allSatisfy(p -> assertThat(p.getName()).startsWith("Bulk_Widget "));
+
+        Page<SaleListItem> sales = saleService.getPaginatedSales(0, 50, "id", "bulk_widget", "asc");
+        assertThat(sales.getTotalElements()).isEqualTo(PRODUCTS);
+        assertThat(sales.getContent()).allSatisfy(s -> assertThat(s.getProductName()).startsWith("Bulk_Widget "));
+
+        CursorPage<SaleListItem> first = saleService.getSalesAfter(null, 50, "id", "asc", "BULK_WIDGET", true);
+        assertThat(first.getTotal()).isEqualTo(PRODUCTS);
+        assertThat(first.isHasNext()).isTrue();
+        CursorPage<SaleListItem> second = saleService.getSalesAfter(first.getNextCursor(), 50, "id", "asc", "BULK_WIDGET", false);
+        assertThat(second.getContent()).hasSize(50)
+                .allSatisfy(s -> assertThat(s.getProductName()).startsWith("Bulk_Widget "));
+        assertThat(second.getContent().get(0).getId()).isGreaterThan(first.getContent().get(49).getId());
+    }
+
+    // One product with one sale per name; the index is rebuilt inside the test transaction so it sees them
+    private void seed(String prefix, int count) {
+        List<Object[]> products = new ArrayList<>();
+        for (int i = 0; i < count; i++) products.add(new Object[]{prefix + i, 1.0, 100});
+        jdbcTemplate.batchUpdate("INSERT INTO products (name, price, quantity, active) VALUES (?, ?, ?, TRUE)", products);
+        jdbcTemplate.update("INSERT INTO sales (product_id, quantity, total_amount, date) " +
+                        "SELECT id, 1, 1.0, ? FROM products WHERE name LIKE ?",
+                Date.valueOf(LocalDate.of(2025, 2, 1)), prefix.replace("_", "\\_") + "%");
+        productNameIndex.afterSingletonsInstantiated();
+    }
+}
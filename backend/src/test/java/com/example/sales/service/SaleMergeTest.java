@@ -0,0 +1,143 @@
+package com.example.sales.service;
+
+import com.example.sales.dto.BatchResult;
+import com.example.sales.dto.SaleBatchLine;
+import com.example.sales.entity.Product;
+import com.example.sales.entity.Sale;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Same-day sales of a product end up in one row, whichever write path and interleaving produced them
+@SpringBootTest
+class SaleMergeTest {
+
+    // Long enough for the racing write to block on the unique key, short of H2's lock timeout
+    private static final long RACE_DELAY_MILLIS = 300;
+
+    @Autowired
+    private SaleService saleService;
+
+    @Autowired
+    private SaleBatchService saleBatchService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    // The other first sale is inserted but not committed when this one looks for the row, so this one's increment
+    // finds nothing and its insert waits on the unique key, then loses to the other's commit
+    @Test
+    void firstSaleRacingAnotherFirstSaleMergesIntoOneRow() throws Exception {
+        Product product = createProduct();
+        LocalDate date = LocalDate.of(2025, 1, 1);
+
+        Sale sale = racingUncommittedFirstSale(product, 4, date, () -> saleService.createSale(newSale(product, 3, date)));
+
+        assertThat(sale.getQuantity()).isEqualTo(7);
+        assertThat(salesRows(product, date)).singleElement()
+                .satisfies(row -> assertThat(((Number) row.get("QUANTITY")).intValue()).isEqualTo(7));
+    }
+
+    @Test
+    void batchMergesIntoExistingRowsAndInsertsNewOnes() {
+        Product product = createProduct();
+        LocalDate existing = LocalDate.of(2025, 2, 1);
+        LocalDate added = LocalDate.of(2025, 2, 2);
+        saleService.createSale(newSale(product, 2, existing));
+
+        SaleBatchService.SaleBatch batch = new SaleBatchService.SaleBatch();
+        batch.add(new SaleBatchLine(product.getName(), 4, existing));
+        batch.add(new SaleBatchLine(product.getName(), 1, added));
+        batch.add(new SaleBatchLine(product.getName(), 5, added));
+        BatchResult result = saleBatchService.write(batch);
+
+        assertThat(result.getAccepted()).isEqualTo(3);
+        assertThat(result.getUpdated()).isEqualTo(1);
+        assertThat(result.getInserted()).isEqualTo(1);
+        assertThat(quantity(product, existing)).isEqualTo(6);
+        assertThat(quantity(product, added)).isEqualTo(6);
+    }
+
+    @Test
+    void batchRacingAFirstSaleMergesIntoOneRow() throws Exception {
+        Product product = createProduct();
+        LocalDate contested = LocalDate.of(2025, 3, 1);
+        LocalDate free = LocalDate.of(2025, 3, 2);
+        SaleBatchService.SaleBatch batch = new SaleBatchService.SaleBatch();
+        batch.add(new SaleBatchLine(product.getName(), 7, contested));
+        batch.add(new SaleBatchLine(product.getName(), 2, free));
+
+        BatchResult result = racingUncommittedFirstSale(product, 3, contested, () -> saleBatchService.write(batch));
+
+        assertThat(result.getAccepted()).isEqualTo(2);
+        assertThat(result.getUpdated()).isEqualTo(1);
+        assertThat(result.getInserted()).isEqualTo(1);
+        assertThat(salesRows(product, contested)).singleElement()
+                .satisfies(row -> assertThat(((Number) row.get("QUANTITY")).intValue()).isEqualTo(10));
+        assertThat(quantity(product, free)).isEqualTo(2);
+    }
+
+    // Runs write while another transaction holds an uncommitted first sale of the product and day, and commits
+    // that sale once write has had time to reach its insert
+    private <T> T racingUncommittedFirstSale(Product product, int quantity, LocalDate date, Callable<T> write) throws Exception {
+        try (Connection connection = dataSource.getConnection();
+             ExecutorService executor = Executors.newSingleThreadExecutor()) {
+            connection.setAutoCommit(false);
+            try (PreparedStatement insert = connection.prepareStatement(
+                    "INSERT INTO sales (product_id, quantity, total_amount, date) VALUES (?, ?, ?, ?)")) {
+                insert.setLong(1, product.getId());
+                insert.setInt(2, quantity);
+                insert.setDouble(3, quantity * product.getPrice());
+                insert.setDate(4, Date.valueOf(date));
+                insert.executeUpdate();
+            }
+            Future<T> result = executor.submit(write);
+            Thread.sleep(RACE_DELAY_MILLIS);
+            assertThat(result).isNotDone();
+            connection.commit();
+            return result.get(10, TimeUnit.SECONDS);
+        }
+    }
+
+    private Product createProduct() {
+        return productService.createProduct(new Product("Merge test " + UUID.randomUUID(), 2.5, 100_000));
+    }
+
+    private static Sale newSale(Product product, int quantity, LocalDate date) {
+        Product byName = new Product();
+        byName.setName(product.getName());
+        return new Sale(byName, quantity, null, date);
+    }
+
+    private List<Map<String, Object>> salesRows(Product product, LocalDate date) {
+        return jdbcTemplate.queryForList("SELECT quantity FROM sales WHERE product_id = ? AND date = ?", product.getId(), date);
+    }
+
+    private int quantity(Product product, LocalDate date) {
+        return jdbcTemplate.queryForObject("SELECT quantity FROM sales WHERE product_id = ? AND date = ?", Integer.class,
+                product.getId(), date);
+    }
+}
@@ -3,7 +3,7 @@ import { Sale, Product } from '../types';
 import SaleModal from './SaleModal';
 import DataTable, { Column, DataTableRef } from './DataTable';
 import { Plus } from 'lucide-react';
-import { saleService, productService } from '../services/api';
+import { saleService, productService, liveSalesService } from '../services/api';
 import '../styles/sales.scss';
 
 interface SalesProps {
@@ -34,7 +34,7 @@ export default function Sales({ search = '' }: SalesProps) {
     { 
       key: 'product', 
       label: 'Product', 
-      render: (s: Sale) => s.product?.name || 'Deleted Product' 
+      render: (s: Sale) => s.productName || s.product?.name || 'Deleted Product' 
     },
     { key: 'quantity', label: 'Quantity' },
     { 
@@ -50,6 +50,23 @@ export default function Sales({ search = '' }: SalesProps) {
     tableRef.current?.reload();
   }, [search]);
 
+  // Reload the visible page when sales are recorded elsewhere, at most every two seconds
+  useEffect(() => {
+    let timer: ReturnType<typeof setTimeout> | null = null;
+    const scheduleReload = () => {
+      if (timer) return;
+      timer = setTimeout(() => {
+        timer = null;
+        tableRef.current?.reload();
+      }, 2000);
+    };
+    const unsubscribe = liveSalesService.subscribe({ onSale: scheduleReload, onReload: scheduleReload });
+    return () => {
+      unsubscribe();
+      if (timer) clearTimeout(timer);
+    };
+  }, []);
+
   return (
     <div className="sales-container">
       <div className="sales-header">
@@ -13,7 +13,8 @@ import {
   ResponsiveContainer,
   Legend,
 } from 'recharts';
-import { reportService } from '../services/api';
+import { liveSalesService, reportService } from '../services/api';
+import { DashboardDelta } from '../types';
 import '../styles/report.scss';
 
 export interface SalesReportType {
@@ -23,21 +24,64 @@ export interface SalesReportType {
   salesByCategory?: { category: string; value: number }[];
 }
 
+// Replaces the totals and upserts the changed days (kept in date order) and products
+function applyDelta(report: SalesReportType, delta: DashboardDelta): SalesReportType {
+  const trend = new Map((report.salesTrend ?? []).map(item => [item.date, item]));
+  delta.salesTrend.forEach(item => trend.set(item.date, item));
+  const byProduct = new Map((report.salesByCategory ?? []).map(item => [item.category, item]));
+  delta.salesByCategory.forEach(item => byProduct.set(item.category, item));
+
+  return {
+    totalSales: delta.totalSales,
+    totalProductsSold: delta.totalProductsSold,
+    salesTrend: [...trend.values()].sort((a, b) => a.date.localeCompare(b.date)),
+    salesByCategory: [...byProduct.values()],
+  };
+}
+
+type DownloadPeriod = 'all' | 'yesterday' | 'last-month';
+
+const localDate = (date: Date) =>
+  `${date.getFullYear()}-${String(date.getMonth() + 1).padStart(2, '0')}-${String(date.getDate()).padStart(2, '0')}`;
+
+// Closed periods match the server's pre-generated snapshots exactly, so those downloads don't rebuild the report
+function periodRange(period: DownloadPeriod): { from?: string; to?: string } {
+  const today = new Date();
+  if (period === 'yesterday') {
+    const day = localDate(new Date(today.getFullYear(), today.getMonth(), today.getDate() - 1));
+    return { from: day, to: day };
+  }
+  if (period === 'last-month') {
+    return {
+      from: localDate(new Date(today.getFullYear(), today.getMonth() - 1, 1)),
+      to: localDate(new Date(today.getFullYear(), today.getMonth(), 0)),
+    };
+  }
+  return {};
+}
+
 export default function SalesReport() {
   const [report, setReport] = useState<SalesReportType | null>(null);
   const [isLoading, setIsLoading] = useState(true);
   const [error, setError] = useState<string | null>(null);
   const [isDownloading, setIsDownloading] = useState(false);
+  const [downloadPeriod, setDownloadPeriod] = useState<DownloadPeriod>('all');
 
   const COLORS = ['#64DD7F', '#01AFF6', '#FFD600', '#FE8E28', '#D03636'];
 
+  // Subscribe before the first load so no change falls in between; deltas then keep the dashboard current
   useEffect(() => {
+    const unsubscribe = liveSalesService.subscribe({
+      onDashboard: (delta) => setReport(prev => (prev ? applyDelta(prev, delta) : prev)),
+      onReload: () => loadReport(true),
+    });
     loadReport();
+    return unsubscribe;
   }, []);
 
-  const loadReport = async () => {
+  const loadReport = async (quiet = false) => {
     try {
-      setIsLoading(true);
+      if (!quiet) setIsLoading(true);
       setError(null);
       const data = await reportService.getSummary();
       setReport(data);
@@ -54,13 +98,16 @@ export default function SalesReport() {
   const handleDownloadCSV = async () => {
     try {
       setIsDownloading(true);
-      const blob = await reportService.downloadCSV();
+      const { from, to } = periodRange(downloadPeriod);
+      const blob = await reportService.downloadCSV(from, to);
       const url = window.URL.createObjectURL(blob);
       const link = document.createElement('a');
       link.href = url;
-      link.download = `sales-report-${new Date()
-        .toISOString()
-        .split('T')[0]}.xlsx`;
+      link.download = from && to
+        ? `sales-report-${from === to ? from : from.slice(0, 7)}.xlsx`
+        : `sales-report-${new Date()
+            .toISOString()
+            .split('T')[0]}.xlsx`;
       document.body.appendChild(link);
       link.click();
       document.body.removeChild(link);
@@ -78,14 +125,26 @@ export default function SalesReport() {
    
       <div className="report-header">
         <h2>Sales Dashboard</h2>
-        <button
-          className="btn-download"
-          onClick={handleDownloadCSV}
-          disabled={isDownloading}
-        >
-          <Download size={20} />
-          {isDownloading ? 'Downloading...' : 'Download Report'}
-        </button>
+        <div className="report-actions">
+          <select
+            className="period-select"
+            value={downloadPeriod}
+            onChange={(e) => setDownloadPeriod(e.target.value as DownloadPeriod)}
+            disabled={isDownloading}
+          >
+            <option value="all">All time</option>
+            <option value="yesterday">Yesterday</option>
+            <option value="last-month">Last month</option>
+          </select>
+          <button
+            className="btn-download"
+            onClick={handleDownloadCSV}
+            disabled={isDownloading}
+          >
+            <Download size={20} />
+            {isDownloading ? 'Downloading...' : 'Download Report'}
+          </button>
+        </div>
       </div>
 
       {error && <div className="error-banner">{error}</div>}
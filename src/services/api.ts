@@ -1,6 +1,6 @@
 
 import axios, { AxiosInstance } from 'axios';
-import { Product, Sale, SalesReport } from '../types';
+import { DashboardDelta, LiveSale, Product, Sale, SalesReport } from '../types';
 
 // const API_BASE_URL = 'http://localhost:8080/api';
 const API_BASE_URL = 'https://vertextrade.fly.dev';
@@ -82,15 +82,77 @@ export const saleService = {
 
 };
 
+export interface LiveSalesHandlers {
+  onSale?: (sale: LiveSale) => void;
+  onDashboard?: (delta: DashboardDelta) => void;
+  onReload?: () => void;
+}
+
+// Live sales over server-sent events. fetch is used instead of EventSource so the Authorization header can be sent.
+// After a dropped connection it reconnects and asks for a reload, since changes may have been missed meanwhile.
+// Returns a function that closes the stream.
+export const liveSalesService = {
+  subscribe: (handlers: LiveSalesHandlers): (() => void) => {
+    const controller = new AbortController();
+
+    const dispatch = (event: string, data: string) => {
+      if (event === 'sale') handlers.onSale?.(JSON.parse(data));
+      else if (event === 'dashboard') handlers.onDashboard?.(JSON.parse(data));
+      else if (event === 'reload') handlers.onReload?.();
+    };
+
+    const connect = async (reconnecting: boolean) => {
+      try {
+        const res = await fetch(`${API_BASE_URL}${API_SALES}/stream`, {
+          headers: { Accept: 'text/event-stream', Authorization: getAuthHeaders().Authorization },
+          signal: controller.signal,
+        });
+        if (!res.ok || !res.body) throw new Error(`Stream request failed with status ${res.status}`);
+        if (reconnecting) handlers.onReload?.();
+
+        const reader = res.body.pipeThrough(new TextDecoderStream()).getReader();
+        let buffer = '';
+        for (;;) {
+          const { value, done } = await reader.read();
+          if (done) break;
+          buffer += value;
+          let end: number;
+          while ((end = buffer.indexOf('\n\n')) >= 0) {
+            const block = buffer.slice(0, end);
+            buffer = buffer.slice(end + 2);
+            let event = 'message';
+            const data: string[] = [];
+            for (const line of block.split('\n')) {
+              if (line.startsWith('event:')) event = line.slice(6).trim();
+              else if (line.startsWith('data:')) data.push(line.slice(5).replace(/^ /, ''));
+            }
+            // Blocks without data are heartbeats
+            if (data.length > 0) dispatch(event, data.join('\n'));
+          }
+        }
+      } catch (err) {
+        if (controller.signal.aborted) return;
+        console.error('Live sales stream failed:', err);
+      }
+      if (!controller.signal.aborted) setTimeout(() => connect(true), 5000);
+    };
+
+    connect(false);
+    return () => controller.abort();
+  },
+};
+
 export const reportService = {
   getSummary: async (): Promise<SalesReport> => {
     const res = await axiosInstance.get(`${API_REPORTS}/summary`, { headers: getAuthHeaders() });
     return res.data;
   },
 
-  downloadCSV: async (): Promise<Blob> => {
+  // Without a range the whole history is exported; a closed day or month is served from a ready-made snapshot
+  downloadCSV: async (from?: string, to?: string): Promise<Blob> => {
     const res = await axiosInstance.get(`${API_REPORTS}/excel`, {
       headers: getAuthHeaders(),
+      params: from && to ? { from, to } : undefined,
       responseType: 'blob',
     });
     return res.data;
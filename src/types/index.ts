@@ -6,11 +6,13 @@ export interface Product {
   price: number;
   quantity: number;
     active?: boolean;
+  version?: number;
 }
 
 export interface Sale {
   id: number;
   productId?: number;
+  productName?: string;
   product: {
     id: number;
     name: string;
@@ -22,6 +24,22 @@ export interface Sale {
   date: string;
 }
 
+export interface LiveSale {
+  productId: number | null;
+  productName: string | null;
+  quantity: number;
+  amount: number;
+  date: string;
+}
+
+// New totals plus only the days and products that changed
+export interface DashboardDelta {
+  totalSales: number;
+  totalProductsSold: number;
+  salesTrend: { date: string; sales: number }[];
+  salesByCategory: { category: string; value: number }[];
+}
+
 export interface SalesReport {
   totalOrders: ReactNode;
   salesTrend: any[] | undefined;